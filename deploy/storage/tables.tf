@@ -8,6 +8,30 @@ resource "aws_dynamodb_table" "product" {
     type = "S"
   }
 
+  attribute {
+    name = "category"
+    type = "S"
+  }
+
+  attribute {
+    name = "price"
+    type = "N"
+  }
+
+  # replaced by category-price-index, drop it once no running instance queries it any more
+  global_secondary_index {
+    name            = "category-index"
+    hash_key        = "category"
+    projection_type = "ALL"
+  }
+
+  global_secondary_index {
+    name            = "category-price-index"
+    hash_key        = "category"
+    range_key       = "price"
+    projection_type = "ALL"
+  }
+
   tags = {
     Name        = "product"
     Environment = "staging"
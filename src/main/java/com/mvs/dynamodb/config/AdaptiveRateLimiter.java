@@ -0,0 +1,160 @@
+package com.mvs.dynamodb.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.RetryUtils;
+import com.google.common.util.concurrent.RateLimiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token bucket per operation class (reads, writes) in front of every DynamoDB attempt, retries included. The rate
+ * starts at the configured maximum and adapts AIMD-style: it is cut multiplicatively when DynamoDB throttles and
+ * grows back additively while attempts succeed. Attempts that cannot get a permit in time fail with
+ * RejectedExecutionException, which is answered with 503, so a throttled table sheds load instead of piling up
+ * threads behind retries.
+ */
+@Slf4j
+public class AdaptiveRateLimiter extends RequestHandler2 implements MeterBinder {
+    // concurrent attempts throttled by the same spike cut the rate once, not once each
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<DynamoDBOperationClass, AdaptiveRate> rates = new EnumMap<>(DynamoDBOperationClass.class);
+    private final Duration maxWait;
+
+    public AdaptiveRateLimiter(DynamoDBClientProperties.Throttling throttling) {
+        this.maxWait = throttling.getMaxWait();
+        for (DynamoDBOperationClass operationClass : new DynamoDBOperationClass[] { DynamoDBOperationClass.READ,
+                DynamoDBOperationClass.WRITE }) {
+            rates.put(operationClass, new AdaptiveRate(operationClass, throttling.getMinRate(),
+                    throttling.getMaxRate(), throttling.getDecreaseFactor(), throttling.getIncreaseStep(),
+                    throttling.getIncreaseInterval().toNanos()));
+        }
+    }
+
+    @Override
+    public void beforeAttempt(HandlerBeforeAttemptContext context) {
+        AdaptiveRate rate = rates.get(DynamoDBOperationClass.of(context.getRequest().getOriginalRequest()));
+        if (rate != null && !rate.tryAcquire(maxWait)) {
+            throw new RejectedExecutionException(
+                    "DynamoDB " + rate.operationClass.tag() + " rate limit of " + rate.rate() + "/s reached");
+        }
+    }
+
+    @Override
+    public void afterAttempt(HandlerAfterAttemptContext context) {
+        AdaptiveRate rate = rates.get(DynamoDBOperationClass.of(context.getRequest().getOriginalRequest()));
+        if (rate == null) {
+            return;
+        }
+        if (context.getException() == null) {
+            rate.increase();
+        } else if (context.getException() instanceof AmazonServiceException e && RetryUtils.isThrottlingException(e)) {
+            rate.decrease();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rates.values().forEach(rate -> {
+            Gauge.builder("dynamodb.client.rate.limit", rate, AdaptiveRate::rate)
+                    .description("Current client-side DynamoDB rate limit in requests per second")
+                    .tag("capacity", rate.operationClass.tag())
+                    .register(registry);
+            FunctionCounter.builder("dynamodb.client.rate.rejected", rate.rejected, LongAdder::sum)
+                    .description("DynamoDB attempts rejected by the client-side rate limit")
+                    .tag("capacity", rate.operationClass.tag())
+                    .register(registry);
+        });
+    }
+
+    // current limit of the given operation class in requests per second
+    double rate(DynamoDBOperationClass operationClass) {
+        return rates.get(operationClass).rate();
+    }
+
+    private static final class AdaptiveRate {
+        private final DynamoDBOperationClass operationClass;
+        private final RateLimiter limiter;
+        private final double minRate;
+        private final double maxRate;
+        private final double decreaseFactor;
+        private final double increaseStep;
+        private final long increaseIntervalNanos;
+        private final LongAdder rejected = new LongAdder();
+        // read without locking on every successful attempt, changed under the lock
+        private volatile double currentRate;
+        private long lastDecreaseNanos;
+        private long lastIncreaseNanos;
+
+        AdaptiveRate(DynamoDBOperationClass operationClass, double minRate, double maxRate, double decreaseFactor,
+                double increaseStep, long increaseIntervalNanos) {
+            this.operationClass = operationClass;
+            this.minRate = Math.min(minRate, maxRate);
+            this.maxRate = maxRate;
+            this.decreaseFactor = decreaseFactor;
+            this.increaseStep = increaseStep;
+            this.increaseIntervalNanos = increaseIntervalNanos;
+            this.currentRate = maxRate;
+            this.limiter = RateLimiter.create(maxRate);
+            this.lastDecreaseNanos = System.nanoTime() - DECREASE_COOLDOWN_NANOS;
+            this.lastIncreaseNanos = System.nanoTime();
+        }
+
+        boolean tryAcquire(Duration maxWait) {
+            if (limiter.tryAcquire(maxWait)) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+
+        double rate() {
+            return currentRate;
+        }
+
+        synchronized void decrease() {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos < DECREASE_COOLDOWN_NANOS) {
+                return;
+            }
+            setRate(Math.max(minRate, currentRate * decreaseFactor));
+            lastDecreaseNanos = now;
+            lastIncreaseNanos = now;
+            log.warn("DynamoDB throttled {} requests, client rate limit lowered to {}/s", operationClass.tag(),
+                    currentRate);
+        }
+
+        void increase() {
+            if (currentRate >= maxRate) {
+                return;
+            }
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (currentRate >= maxRate || now - lastIncreaseNanos < increaseIntervalNanos) {
+                    return;
+                }
+                setRate(Math.min(maxRate, currentRate + increaseStep));
+                lastIncreaseNanos = now;
+            }
+        }
+
+        private void setRate(double rate) {
+            currentRate = rate;
+            limiter.setRate(rate);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mvs.dynamodb.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the worker pools used for DynamoDB fan-out work. Pools are bounded in both threads and queued tasks,
+ * so a burst of bulk jobs is rejected instead of piling up unbounded work. With product.threads.virtual every
+ * task gets its own virtual thread instead, and only the total number of tasks in flight is bounded.
+ */
+@Component
+public class BoundedExecutorFactory {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final boolean virtualThreads;
+
+    @Autowired
+    public BoundedExecutorFactory(@Value("${product.threads.virtual:false}") boolean virtualThreads) {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            throw new IllegalStateException("product.threads.virtual requires Java 21 or newer, running on "
+                    + Runtime.version());
+        }
+        this.virtualThreads = virtualThreads;
+    }
+
+    public ExecutorService newExecutor(String name, int maxThreads, int queueCapacity) {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor(VirtualThreads.newThreadPerTaskExecutor(name),
+                    maxThreads + queueCapacity);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
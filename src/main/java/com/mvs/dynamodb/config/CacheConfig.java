@@ -0,0 +1,36 @@
+package com.mvs.dynamodb.config;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Value("${product.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${product.cache.expire-after-write:60s}")
+    private Duration expireAfterWrite;
+
+    // caches are declared up front so actuator binds their hit/miss/eviction metrics at startup
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS_CACHE);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mvs.dynamodb.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
+
+/**
+ * Retry delays with decorrelated jitter: each delay is drawn between the base delay and three times the previous
+ * one, capped at the maximum. Spreading retries this way keeps throttled clients from retrying in lockstep. Every
+ * call also has a retry budget, once its delays add up to the budget it is not retried any more, so a throttled call
+ * fails fast instead of holding its thread through all retries.
+ */
+class DecorrelatedJitterBackoff implements RetryPolicy.RetryCondition, RetryPolicy.BackoffStrategy {
+    // kept on the original request, which is the same object for every attempt of a call
+    private static final HandlerContextKey<Long> PREVIOUS_DELAY_MS = new HandlerContextKey<>("RetryPreviousDelayMs");
+    private static final HandlerContextKey<Long> SPENT_MS = new HandlerContextKey<>("RetrySpentMs");
+
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long budgetMs;
+
+    DecorrelatedJitterBackoff(long baseDelayMs, long maxDelayMs, long budgetMs) {
+        this.baseDelayMs = Math.max(1L, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.budgetMs = budgetMs;
+    }
+
+    @Override
+    public boolean shouldRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+            int retriesAttempted) {
+        return PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION.shouldRetry(originalRequest, exception,
+                retriesAttempted) && spentMs(originalRequest, retriesAttempted) < budgetMs;
+    }
+
+    @Override
+    public long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+            int retriesAttempted) {
+        long previousDelayMs = retriesAttempted == 0
+                ? baseDelayMs
+                : valueOrDefault(originalRequest.getHandlerContext(PREVIOUS_DELAY_MS), baseDelayMs);
+        long spentMs = spentMs(originalRequest, retriesAttempted);
+        long delayMs = Math.min(maxDelayMs,
+                ThreadLocalRandom.current().nextLong(baseDelayMs, Math.max(baseDelayMs, previousDelayMs * 3) + 1));
+        delayMs = Math.min(delayMs, Math.max(0L, budgetMs - spentMs));
+        originalRequest.addHandlerContext(PREVIOUS_DELAY_MS, delayMs);
+        originalRequest.addHandlerContext(SPENT_MS, spentMs + delayMs);
+        return delayMs;
+    }
+
+    // the first retry of a call starts a new budget, the request object may have been sent before
+    private static long spentMs(AmazonWebServiceRequest originalRequest, int retriesAttempted) {
+        return retriesAttempted == 0 ? 0L : valueOrDefault(originalRequest.getHandlerContext(SPENT_MS), 0L);
+    }
+
+    private static long valueOrDefault(Long value, long defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,142 @@
+package com.mvs.dynamodb.config;
+
+import java.time.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.RetryPolicy;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import lombok.Data;
+
+/**
+ * HTTP client settings of the DynamoDB client, bound from amazon.dynamodb.*. Defaults match the SDK except for the
+ * region. The application refuses to start with invalid values.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "amazon.dynamodb")
+public class DynamoDBClientProperties {
+
+    // e.g. http://localhost:8000/ for DynamoDB Local, the regional endpoint is used when empty
+    private String endpoint;
+
+    @NotBlank
+    private String region = "eu-west-2";
+
+    // size it to the number of concurrent DynamoDB calls, callers wait for a free connection beyond it
+    @Min(1)
+    @Max(10000)
+    private int maxConnections = ClientConfiguration.DEFAULT_MAX_CONNECTIONS;
+
+    @NotNull
+    private Duration connectionTimeout = Duration.ofMillis(ClientConfiguration.DEFAULT_CONNECTION_TIMEOUT);
+
+    @NotNull
+    private Duration socketTimeout = Duration.ofMillis(ClientConfiguration.DEFAULT_SOCKET_TIMEOUT);
+
+    // per HTTP attempt, zero disables it
+    @NotNull
+    private Duration requestTimeout = Duration.ZERO;
+
+    // for the whole call including retries, zero disables it
+    @NotNull
+    private Duration clientExecutionTimeout = Duration.ZERO;
+
+    // pooled connections are closed after this age, negative keeps them until they fail
+    @NotNull
+    private Duration connectionTtl = Duration.ofMillis(ClientConfiguration.DEFAULT_CONNECTION_TTL);
+
+    @NotNull
+    private Duration connectionMaxIdle = Duration.ofMillis(ClientConfiguration.DEFAULT_CONNECTION_MAX_IDLE_MILLIS);
+
+    @NotNull
+    private Duration validateAfterInactivity = Duration.ofMillis(
+            ClientConfiguration.DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+    private boolean tcpKeepAlive = ClientConfiguration.DEFAULT_TCP_KEEP_ALIVE;
+
+    @Valid
+    @NotNull
+    private Throttling throttling = new Throttling();
+
+    public ClientConfiguration toClientConfiguration() {
+        ClientConfiguration clientConfiguration = new ClientConfiguration()
+                .withMaxConnections(maxConnections)
+                .withConnectionTimeout(Math.toIntExact(connectionTimeout.toMillis()))
+                .withSocketTimeout(Math.toIntExact(socketTimeout.toMillis()))
+                .withRequestTimeout(Math.toIntExact(requestTimeout.toMillis()))
+                .withClientExecutionTimeout(Math.toIntExact(clientExecutionTimeout.toMillis()))
+                .withConnectionTTL(connectionTtl.isNegative() ? -1 : connectionTtl.toMillis())
+                .withConnectionMaxIdleMillis(connectionMaxIdle.toMillis())
+                .withValidateAfterInactivityMillis(Math.toIntExact(validateAfterInactivity.toMillis()))
+                .withTcpKeepAlive(tcpKeepAlive);
+        if (throttling.isEnabled()) {
+            clientConfiguration.setRetryPolicy(throttling.toRetryPolicy());
+        }
+        return clientConfiguration;
+    }
+
+    /**
+     * Client-side reaction to throttling, bound from amazon.dynamodb.throttling.*. Reads and writes each get a rate
+     * limit that starts at max-rate, is cut by decrease-factor when DynamoDB throttles and grows back by
+     * increase-step per increase-interval while calls succeed. Retries wait with decorrelated jitter between
+     * base-delay and max-delay and stop once a call has waited retry-budget in total.
+     */
+    @Data
+    public static class Throttling {
+
+        // when disabled the SDK default retry policy is used and calls are not rate limited
+        private boolean enabled = true;
+
+        // requests per second for each of reads and writes
+        @Positive
+        private double maxRate = 5000;
+
+        @Positive
+        private double minRate = 10;
+
+        @DecimalMin("0.1")
+        @DecimalMax("0.99")
+        private double decreaseFactor = 0.5;
+
+        @Positive
+        private double increaseStep = 50;
+
+        @NotNull
+        private Duration increaseInterval = Duration.ofSeconds(1);
+
+        // calls that cannot get a permit within this time fail and are answered with 503
+        @NotNull
+        private Duration maxWait = Duration.ofMillis(500);
+
+        @Min(0)
+        @Max(20)
+        private int maxRetries = 3;
+
+        @NotNull
+        private Duration baseDelay = Duration.ofMillis(25);
+
+        @NotNull
+        private Duration maxDelay = Duration.ofSeconds(1);
+
+        @NotNull
+        private Duration retryBudget = Duration.ofSeconds(2);
+
+        public RetryPolicy toRetryPolicy() {
+            DecorrelatedJitterBackoff backoff = new DecorrelatedJitterBackoff(baseDelay.toMillis(),
+                    maxDelay.toMillis(), retryBudget.toMillis());
+            return new RetryPolicy(backoff, backoff, maxRetries, false);
+        }
+    }
+}
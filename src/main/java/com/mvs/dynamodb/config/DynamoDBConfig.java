@@ -4,21 +4,25 @@ import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.regions.Regions;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.handlers.RequestHandler2;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.google.common.base.Strings;
 import com.mvs.dynamodb.repository.ProductRepository;
 
 import org.socialsignin.spring.data.dynamodb.repository.config.EnableDynamoDBRepositories;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
 @Configuration
 @EnableDynamoDBRepositories(basePackageClasses = ProductRepository.class)
+@EnableConfigurationProperties(DynamoDBClientProperties.class)
 public class DynamoDBConfig {
 
     @Value("${amazon.aws.accesskey}")
@@ -49,10 +53,38 @@ public class DynamoDBConfig {
     }
 
     @Bean
-    public AmazonDynamoDB amazonDynamoDB() {
-        return AmazonDynamoDBClientBuilder.standard()
+    public DynamoDBPoolMetrics dynamoDBPoolMetrics(DynamoDBClientProperties clientProperties) {
+        return new DynamoDBPoolMetrics(clientProperties.getMaxConnections());
+    }
+
+    @Bean
+    public DynamoDBOperationMetrics dynamoDBOperationMetrics() {
+        return new DynamoDBOperationMetrics();
+    }
+
+    @Bean
+    public AdaptiveRateLimiter dynamoDBRateLimiter(DynamoDBClientProperties clientProperties) {
+        return new AdaptiveRateLimiter(clientProperties.getThrottling());
+    }
+
+    @Bean
+    public AmazonDynamoDB amazonDynamoDB(DynamoDBClientProperties clientProperties,
+            DynamoDBPoolMetrics poolMetrics, DynamoDBOperationMetrics operationMetrics,
+            AdaptiveRateLimiter rateLimiter) {
+        // the metrics handler runs first, so time spent waiting for the rate limiter is part of the latency
+        RequestHandler2[] requestHandlers = clientProperties.getThrottling().isEnabled()
+                ? new RequestHandler2[] { operationMetrics, rateLimiter }
+                : new RequestHandler2[] { operationMetrics };
+        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
                 .withCredentials(amazonAWSCredentialsProvider())
-                .withRegion(Regions.EU_WEST_2)
+                .withClientConfiguration(clientProperties.toClientConfiguration())
+                .withMetricsCollector(poolMetrics)
+                .withRequestHandlers(requestHandlers);
+        if (Strings.isNullOrEmpty(clientProperties.getEndpoint())) {
+            return builder.withRegion(clientProperties.getRegion()).build();
+        }
+        return builder.withEndpointConfiguration(
+                new AwsClientBuilder.EndpointConfiguration(clientProperties.getEndpoint(), clientProperties.getRegion()))
                 .build();
     }
 }
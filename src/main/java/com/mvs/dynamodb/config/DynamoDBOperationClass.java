@@ -0,0 +1,34 @@
+package com.mvs.dynamodb.config;
+
+import java.util.Locale;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+
+// DynamoDB operations grouped by the capacity they consume, table management calls fall into OTHER
+enum DynamoDBOperationClass {
+    READ, WRITE, OTHER;
+
+    static DynamoDBOperationClass of(AmazonWebServiceRequest request) {
+        if (request instanceof GetItemRequest || request instanceof QueryRequest || request instanceof ScanRequest
+                || request instanceof BatchGetItemRequest) {
+            return READ;
+        }
+        if (request instanceof PutItemRequest || request instanceof UpdateItemRequest
+                || request instanceof DeleteItemRequest || request instanceof BatchWriteItemRequest) {
+            return WRITE;
+        }
+        return OTHER;
+    }
+
+    String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,233 @@
+package com.mvs.dynamodb.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Records latency, retries, throttles and consumed capacity of every DynamoDB call, tagged by operation (PutItem,
+ * GetItem, Scan, ...) and table. Item and batch calls are made to return their consumed capacity, which is published
+ * as read and write capacity units so hot paths and their cost can be told apart. Nothing is recorded until the
+ * binder has been bound to a registry.
+ */
+public class DynamoDBOperationMetrics extends RequestHandler2 implements MeterBinder {
+    private static final HandlerContextKey<Long> START_NANOS = new HandlerContextKey<>("DynamoDBMetricsStartNanos");
+    private static final HandlerContextKey<Integer> ATTEMPTS = new HandlerContextKey<>("DynamoDBMetricsAttempts");
+    private static final String MULTIPLE_TABLES = "multiple";
+    private static final String NO_TABLE = "none";
+    private static final String READ = DynamoDBOperationClass.READ.tag();
+    private static final String WRITE = DynamoDBOperationClass.WRITE.tag();
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // asks for the consumed capacity unless the caller already chose what to return
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (request instanceof PutItemRequest putItem && putItem.getReturnConsumedCapacity() == null) {
+            putItem.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof GetItemRequest getItem && getItem.getReturnConsumedCapacity() == null) {
+            getItem.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof DeleteItemRequest deleteItem && deleteItem.getReturnConsumedCapacity() == null) {
+            deleteItem.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof UpdateItemRequest updateItem && updateItem.getReturnConsumedCapacity() == null) {
+            updateItem.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof QueryRequest query && query.getReturnConsumedCapacity() == null) {
+            query.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof ScanRequest scan && scan.getReturnConsumedCapacity() == null) {
+            scan.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof BatchWriteItemRequest batchWrite
+                && batchWrite.getReturnConsumedCapacity() == null) {
+            batchWrite.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof BatchGetItemRequest batchGet && batchGet.getReturnConsumedCapacity() == null) {
+            batchGet.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        return request;
+    }
+
+    // runs once per call, before the first attempt, so the timer includes retries and their back-off
+    @Override
+    public void beforeRequest(Request<?> request) {
+        request.addHandlerContext(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void beforeAttempt(HandlerBeforeAttemptContext context) {
+        Integer attempts = context.getRequest().getHandlerContext(ATTEMPTS);
+        context.getRequest().addHandlerContext(ATTEMPTS, attempts == null ? 1 : attempts + 1);
+    }
+
+    @Override
+    public void afterAttempt(HandlerAfterAttemptContext context) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null && context.getException() instanceof AmazonServiceException e
+                && RetryUtils.isThrottlingException(e)) {
+            Counter.builder("dynamodb.client.throttles")
+                    .description("DynamoDB attempts rejected by throttling")
+                    .tags(tags(context.getRequest()))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        record(meterRegistry, request, "success");
+        Object result = response == null ? null : response.getAwsResponse();
+        String capacityType = capacityType(request.getOriginalRequest());
+        for (ConsumedCapacity consumedCapacity : consumedCapacity(result)) {
+            if (consumedCapacity != null && consumedCapacity.getCapacityUnits() != null) {
+                Counter.builder("dynamodb.client.consumed.capacity")
+                        .description("Capacity units consumed by DynamoDB calls")
+                        .baseUnit("capacity.units")
+                        .tags(Tags.of("operation", operation(request),
+                                "table", String.valueOf(consumedCapacity.getTableName()),
+                                "capacity", capacityType))
+                        .register(meterRegistry)
+                        .increment(consumedCapacity.getCapacityUnits());
+            }
+        }
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            record(meterRegistry, request, "error");
+        }
+    }
+
+    private static void record(MeterRegistry meterRegistry, Request<?> request, String outcome) {
+        Tags tags = tags(request);
+        Long startNanos = request.getHandlerContext(START_NANOS);
+        if (startNanos != null) {
+            Timer.builder("dynamodb.client.requests")
+                    .description("Latency of DynamoDB calls including retries")
+                    .tags(tags.and("outcome", outcome))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+        Integer attempts = request.getHandlerContext(ATTEMPTS);
+        if (attempts != null && attempts > 1) {
+            Counter.builder("dynamodb.client.retries")
+                    .description("DynamoDB attempts that were retries of a failed attempt")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment(attempts - 1);
+        }
+    }
+
+    private static Tags tags(Request<?> request) {
+        return Tags.of("operation", operation(request), "table", tableName(request.getOriginalRequest()));
+    }
+
+    // PutItemRequest -> PutItem
+    private static String operation(Request<?> request) {
+        String requestType = request.getOriginalRequest().getClass().getSimpleName();
+        return requestType.endsWith("Request")
+                ? requestType.substring(0, requestType.length() - "Request".length())
+                : requestType;
+    }
+
+    private static String tableName(AmazonWebServiceRequest request) {
+        if (request instanceof PutItemRequest putItem) {
+            return putItem.getTableName();
+        } else if (request instanceof GetItemRequest getItem) {
+            return getItem.getTableName();
+        } else if (request instanceof DeleteItemRequest deleteItem) {
+            return deleteItem.getTableName();
+        } else if (request instanceof UpdateItemRequest updateItem) {
+            return updateItem.getTableName();
+        } else if (request instanceof QueryRequest query) {
+            return query.getTableName();
+        } else if (request instanceof ScanRequest scan) {
+            return scan.getTableName();
+        } else if (request instanceof BatchWriteItemRequest batchWrite) {
+            return tableName(batchWrite.getRequestItems());
+        } else if (request instanceof BatchGetItemRequest batchGet) {
+            return tableName(batchGet.getRequestItems());
+        }
+        return NO_TABLE;
+    }
+
+    private static String tableName(Map<String, ?> requestItems) {
+        if (requestItems == null || requestItems.isEmpty()) {
+            return NO_TABLE;
+        }
+        Set<String> tables = requestItems.keySet();
+        return tables.size() == 1 ? tables.iterator().next() : MULTIPLE_TABLES;
+    }
+
+    private static String capacityType(AmazonWebServiceRequest request) {
+        return DynamoDBOperationClass.of(request) == DynamoDBOperationClass.READ ? READ : WRITE;
+    }
+
+    private static List<ConsumedCapacity> consumedCapacity(Object result) {
+        if (result instanceof PutItemResult putItem) {
+            return singleton(putItem.getConsumedCapacity());
+        } else if (result instanceof GetItemResult getItem) {
+            return singleton(getItem.getConsumedCapacity());
+        } else if (result instanceof DeleteItemResult deleteItem) {
+            return singleton(deleteItem.getConsumedCapacity());
+        } else if (result instanceof UpdateItemResult updateItem) {
+            return singleton(updateItem.getConsumedCapacity());
+        } else if (result instanceof QueryResult query) {
+            return singleton(query.getConsumedCapacity());
+        } else if (result instanceof ScanResult scan) {
+            return singleton(scan.getConsumedCapacity());
+        } else if (result instanceof BatchWriteItemResult batchWrite && batchWrite.getConsumedCapacity() != null) {
+            return batchWrite.getConsumedCapacity();
+        } else if (result instanceof BatchGetItemResult batchGet && batchGet.getConsumedCapacity() != null) {
+            return batchGet.getConsumedCapacity();
+        }
+        return List.of();
+    }
+
+    private static List<ConsumedCapacity> singleton(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity == null ? List.of() : List.of(consumedCapacity);
+    }
+}
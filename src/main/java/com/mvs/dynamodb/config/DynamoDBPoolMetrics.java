@@ -0,0 +1,58 @@
+package com.mvs.dynamodb.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.TimingInfo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the connection pool state the SDK samples before every HTTP request. A pending count above zero means
+ * requests are waiting for a connection and amazon.dynamodb.max-connections is too small for the load.
+ */
+public class DynamoDBPoolMetrics extends RequestMetricCollector implements MeterBinder {
+    private final int maxConnections;
+    private final AtomicLong available = new AtomicLong();
+    private final AtomicLong leased = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+
+    public DynamoDBPoolMetrics(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public void collectMetrics(Request<?> request, Response<?> response) {
+        TimingInfo timingInfo = request.getAWSRequestMetrics().getTimingInfo();
+        update(available, timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolAvailableCount.name()));
+        update(leased, timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolLeasedCount.name()));
+        update(pending, timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolPendingCount.name()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dynamodb.client.pool.max", () -> maxConnections)
+                .description("Maximum number of pooled DynamoDB connections")
+                .register(registry);
+        Gauge.builder("dynamodb.client.pool.available", available, AtomicLong::get)
+                .description("Idle pooled DynamoDB connections")
+                .register(registry);
+        Gauge.builder("dynamodb.client.pool.leased", leased, AtomicLong::get)
+                .description("DynamoDB connections in use")
+                .register(registry);
+        Gauge.builder("dynamodb.client.pool.pending", pending, AtomicLong::get)
+                .description("Requests waiting for a DynamoDB connection")
+                .register(registry);
+    }
+
+    private static void update(AtomicLong gauge, Number value) {
+        if (value != null) {
+            gauge.set(value.longValue());
+        }
+    }
+}
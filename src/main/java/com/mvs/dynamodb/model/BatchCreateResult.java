@@ -0,0 +1,16 @@
+package com.mvs.dynamodb.model;
+
+import java.util.List;
+
+public record BatchCreateResult(long created, long replaced, long failed, List<BatchItemResult> items) {
+
+    public static BatchCreateResult of(List<BatchItemResult> items) {
+        long created = count(items, BatchItemResult.Status.CREATED);
+        long replaced = count(items, BatchItemResult.Status.REPLACED);
+        return new BatchCreateResult(created, replaced, items.size() - created - replaced, items);
+    }
+
+    private static long count(List<BatchItemResult> items, BatchItemResult.Status status) {
+        return items.stream().filter(item -> item.status() == status).count();
+    }
+}
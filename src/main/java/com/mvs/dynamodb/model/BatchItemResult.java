@@ -0,0 +1,9 @@
+package com.mvs.dynamodb.model;
+
+public record BatchItemResult(int index, String id, Status status, String message) {
+
+    // REPLACED is a product written over a stored product with the same id
+    public enum Status {
+        CREATED, REPLACED, INVALID, FAILED
+    }
+}
@@ -0,0 +1,9 @@
+package com.mvs.dynamodb.model;
+
+// products of one category, optionally restricted to a price range, null bounds are open
+public record CategoryQuery(String category, Double minPrice, Double maxPrice, boolean ascending) {
+
+    public static CategoryQuery of(String category) {
+        return new CategoryQuery(category, null, null, true);
+    }
+}
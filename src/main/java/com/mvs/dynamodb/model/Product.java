@@ -7,7 +7,10 @@ import javax.validation.constraints.NotNull;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAutoGeneratedKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,6 +23,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @DynamoDBTable(tableName = "product")
 public class Product {
+    public static final String CATEGORY_PRICE_INDEX = "category-price-index";
+
     @DynamoDBHashKey(attributeName = "id")
     @DynamoDBAutoGeneratedKey
     private String id;
@@ -28,13 +33,21 @@ public class Product {
     @NotNull(message = "Name cannot be null")
     private String name;
 
-    @DynamoDBAttribute(attributeName = "category")
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = CATEGORY_PRICE_INDEX, attributeName = "category")
     @NotNull(message = "Category cannot be null")
     private String category;
 
-    @DynamoDBAttribute(attributeName = "price")
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = CATEGORY_PRICE_INDEX, attributeName = "price")
     @NotNull(message = "Price cannot be null")
     @Min(value = 0, message = "Price cannot be negative")
     @Max(value = 100000, message = "Price cannot be greater than 100000")
     private Double price;
+
+    // incremented by every single item save, which only succeeds while the stored item has the same version
+    @DynamoDBVersionAttribute(attributeName = "version")
+    private Long version;
+
+    public Product(String id, String name, String category, Double price) {
+        this(id, name, category, price, null);
+    }
 }	
@@ -0,0 +1,6 @@
+package com.mvs.dynamodb.model;
+
+import java.util.List;
+
+public record ProductBatchGetResult(List<Product> found, List<String> missing) {
+}
@@ -0,0 +1,6 @@
+package com.mvs.dynamodb.model;
+
+import java.util.List;
+
+public record ProductPage(List<Product> items, String nextCursor) {
+}
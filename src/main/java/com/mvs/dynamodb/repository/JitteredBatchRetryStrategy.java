@@ -0,0 +1,54 @@
+package com.mvs.dynamodb.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.BatchLoadContext;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+/**
+ * Retries the unprocessed part of a batch write or get with exponential backoff and full jitter, so that concurrent
+ * batches throttled at the same time do not retry in lockstep.
+ */
+public class JitteredBatchRetryStrategy
+        implements DynamoDBMapperConfig.BatchWriteRetryStrategy, DynamoDBMapperConfig.BatchLoadRetryStrategy {
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public JitteredBatchRetryStrategy(int maxRetries, long baseDelayMs, long maxDelayMs) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    @Override
+    public int getMaxRetryOnUnprocessedItems(Map<String, List<WriteRequest>> batchWriteItemInput) {
+        return maxRetries;
+    }
+
+    @Override
+    public long getDelayBeforeRetryUnprocessedItems(Map<String, List<WriteRequest>> unprocessedItems,
+            int retriesAttempted) {
+        return delay(retriesAttempted);
+    }
+
+    @Override
+    public boolean shouldRetry(BatchLoadContext batchLoadContext) {
+        return batchLoadContext.getRetriesAttempted() < maxRetries;
+    }
+
+    @Override
+    public long getDelayBeforeNextRetry(BatchLoadContext batchLoadContext) {
+        return delay(batchLoadContext.getRetriesAttempted());
+    }
+
+    long delay(int retriesAttempted) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(retriesAttempted, MAX_BACKOFF_SHIFT));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -8,5 +8,5 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 @EnableScan
-public interface ProductRepository extends CrudRepository<Product, String> {
+public interface ProductRepository extends CrudRepository<Product, String>, ProductRepositoryCustom {
 }
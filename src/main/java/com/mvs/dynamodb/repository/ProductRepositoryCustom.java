@@ -0,0 +1,40 @@
+package com.mvs.dynamodb.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+
+public interface ProductRepositoryCustom {
+
+    // saves the product only if an item with its id already exists, otherwise throws ConditionalCheckFailedException
+    Product saveIfExists(Product product);
+
+    // sets the given attributes with a single UpdateItem call, only if the item exists and, unless expectedVersions
+    // is empty, is at one of them, otherwise throws ConditionalCheckFailedException; returns the updated product
+    Product updateAttributes(String id, Map<String, Object> attributes, Set<Long> expectedVersions);
+
+    // reads a single page of at most limit items, starting after exclusiveStartKey (null for the first page)
+    ScanResultPage<Product> findPage(int limit, Map<String, AttributeValue> exclusiveStartKey);
+
+    // same as findPage but restricted to one of totalSegments disjoint segments of the table
+    ScanResultPage<Product> findSegmentPage(int segment, int totalSegments, int limit,
+            Map<String, AttributeValue> exclusiveStartKey);
+
+    // queries one page of the products in a category through the category-price index, reads only the matching
+    // items and returns them ordered by price
+    QueryResultPage<Product> findByCategory(CategoryQuery query, int limit,
+            Map<String, AttributeValue> exclusiveStartKey);
+
+    // puts up to 25 products with a single BatchWriteItem call, retrying unprocessed items with jittered backoff
+    List<DynamoDBMapper.FailedBatch> batchWrite(List<Product> products);
+
+    // gets up to 100 products with a single BatchGetItem call, retrying unprocessed keys with jittered backoff
+    List<Product> batchLoad(List<String> ids);
+}
@@ -0,0 +1,195 @@
+package com.mvs.dynamodb.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String PRICE_ATTRIBUTE = "price";
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDBMapperTableModel<Product> tableModel;
+    private final String tableName;
+    private final DynamoDBMapperConfig batchConfig;
+
+    @Autowired
+    public ProductRepositoryCustomImpl(final DynamoDBMapper dynamoDBMapper, final AmazonDynamoDB amazonDynamoDB,
+            final DynamoDBMapperConfig mapperConfig,
+            @Value("${product.batch.max-retries:8}") int maxRetries,
+            @Value("${product.batch.retry-base-delay-ms:25}") long retryBaseDelayMs,
+            @Value("${product.batch.retry-max-delay-ms:2000}") long retryMaxDelayMs) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.tableModel = dynamoDBMapper.getTableModel(Product.class, mapperConfig);
+        this.tableName = mapperConfig.getTableNameResolver() != null
+                ? mapperConfig.getTableNameResolver().getTableName(Product.class, mapperConfig)
+                : DynamoDBMapperConfig.DefaultTableNameResolver.INSTANCE.getTableName(Product.class, mapperConfig);
+        JitteredBatchRetryStrategy retryStrategy = new JitteredBatchRetryStrategy(maxRetries, retryBaseDelayMs,
+                retryMaxDelayMs);
+        this.batchConfig = DynamoDBMapperConfig.builder()
+                .withBatchWriteRetryStrategy(retryStrategy)
+                .withBatchLoadRetryStrategy(retryStrategy)
+                .build();
+    }
+
+    @Override
+    public Product saveIfExists(Product product) {
+        // expected-value style rather than a condition expression, so the mapper can add its own conditions to it
+        DynamoDBSaveExpression saveExpression = new DynamoDBSaveExpression()
+                .withExpectedEntry(ID_ATTRIBUTE,
+                        new ExpectedAttributeValue(new AttributeValue().withS(product.getId())));
+        dynamoDBMapper.save(product, saveExpression);
+        return product;
+    }
+
+    @Override
+    public Product updateAttributes(String id, Map<String, Object> attributes, Set<Long> expectedVersions) {
+        DynamoDBMapperFieldModel<Product, Object> hashKey = tableModel.hashKey();
+        String versionAttribute = versionField().name();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> setActions = new ArrayList<>();
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            String name = "#a" + names.size();
+            String value = ":a" + values.size();
+            names.put(name, attribute.getKey());
+            values.put(value, tableModel.field(attribute.getKey()).convert(attribute.getValue()));
+            setActions.add(name + " = " + value);
+        }
+        // items written before versioning have no version attribute yet
+        names.put("#version", versionAttribute);
+        values.put(":zero", new AttributeValue().withN("0"));
+        values.put(":one", new AttributeValue().withN("1"));
+        setActions.add("#version = if_not_exists(#version, :zero) + :one");
+
+        names.put("#id", hashKey.name());
+        String condition = "attribute_exists(#id)";
+        if (!expectedVersions.isEmpty()) {
+            List<String> versions = new ArrayList<>();
+            for (Long expectedVersion : expectedVersions) {
+                String value = ":expectedVersion" + versions.size();
+                values.put(value, new AttributeValue().withN(expectedVersion.toString()));
+                versions.add(value);
+            }
+            condition += " AND #version IN (" + String.join(", ", versions) + ")";
+        }
+
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(tableName)
+                .withKey(Map.of(hashKey.name(), hashKey.convert(id)))
+                .withUpdateExpression("SET " + String.join(", ", setActions))
+                .withConditionExpression(condition)
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values)
+                .withReturnValues(ReturnValue.ALL_NEW);
+        // the whole item as written, so the caller can answer with the merged product without reading it again
+        return tableModel.unconvert(amazonDynamoDB.updateItem(request).getAttributes());
+    }
+
+    @Override
+    public ScanResultPage<Product> findPage(int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
+                .withLimit(limit)
+                .withExclusiveStartKey(exclusiveStartKey);
+        return dynamoDBMapper.scanPage(Product.class, scanExpression);
+    }
+
+    @Override
+    public ScanResultPage<Product> findSegmentPage(int segment, int totalSegments, int limit,
+            Map<String, AttributeValue> exclusiveStartKey) {
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
+                .withSegment(segment)
+                .withTotalSegments(totalSegments)
+                .withLimit(limit)
+                .withExclusiveStartKey(exclusiveStartKey);
+        return dynamoDBMapper.scanPage(Product.class, scanExpression);
+    }
+
+    @Override
+    public QueryResultPage<Product> findByCategory(CategoryQuery query, int limit,
+            Map<String, AttributeValue> exclusiveStartKey) {
+        // global secondary indexes only support eventually consistent reads
+        DynamoDBQueryExpression<Product> queryExpression = new DynamoDBQueryExpression<Product>()
+                .withIndexName(Product.CATEGORY_PRICE_INDEX)
+                .withHashKeyValues(Product.builder().category(query.category()).build())
+                .withScanIndexForward(query.ascending())
+                .withConsistentRead(false)
+                .withLimit(limit)
+                .withExclusiveStartKey(exclusiveStartKey);
+        Condition priceCondition = priceCondition(query.minPrice(), query.maxPrice());
+        if (priceCondition != null) {
+            queryExpression.withRangeKeyCondition(PRICE_ATTRIBUTE, priceCondition);
+        }
+        return dynamoDBMapper.queryPage(Product.class, queryExpression);
+    }
+
+    @Override
+    public List<DynamoDBMapper.FailedBatch> batchWrite(List<Product> products) {
+        return dynamoDBMapper.batchWrite(products, Collections.emptyList(), batchConfig);
+    }
+
+    @Override
+    public List<Product> batchLoad(List<String> ids) {
+        List<Product> keys = ids.stream()
+                .map(id -> Product.builder().id(id).build())
+                .collect(Collectors.toList());
+        return dynamoDBMapper.batchLoad(keys, batchConfig).values().stream()
+                .flatMap(List::stream)
+                .map(Product.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    private DynamoDBMapperFieldModel<Product, Object> versionField() {
+        return tableModel.fields().stream()
+                .filter(DynamoDBMapperFieldModel::versioned)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Product has no version attribute"));
+    }
+
+    private static Condition priceCondition(Double minPrice, Double maxPrice) {
+        if (minPrice != null && maxPrice != null) {
+            return new Condition().withComparisonOperator(ComparisonOperator.BETWEEN)
+                    .withAttributeValueList(number(minPrice), number(maxPrice));
+        } else if (minPrice != null) {
+            return new Condition().withComparisonOperator(ComparisonOperator.GE)
+                    .withAttributeValueList(number(minPrice));
+        } else if (maxPrice != null) {
+            return new Condition().withComparisonOperator(ComparisonOperator.LE)
+                    .withAttributeValueList(number(maxPrice));
+        }
+        return null;
+    }
+
+    private static AttributeValue number(Double value) {
+        return new AttributeValue().withN(BigDecimal.valueOf(value).toPlainString());
+    }
+}
@@ -0,0 +1,76 @@
+package com.mvs.dynamodb.service;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.mvs.dynamodb.web.exception.InvalidCursorException;
+
+/**
+ * Turns a DynamoDB LastEvaluatedKey into an opaque, URL-safe cursor and back.
+ * Key attributes are always scalar, so only the S and N types are supported.
+ */
+final class PageCursorCodec {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Map<String, String>>> CURSOR_TYPE = new TypeReference<>() {
+    };
+    private static final String STRING_TYPE = "S";
+    private static final String NUMBER_TYPE = "N";
+
+    private PageCursorCodec() {
+    }
+
+    static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, Map<String, String>> key = new LinkedHashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> key.put(name, toTypedValue(name, value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(key));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    static Map<String, AttributeValue> decode(String cursor) {
+        if (Strings.isNullOrEmpty(cursor)) {
+            return null;
+        }
+        try {
+            Map<String, Map<String, String>> key = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor),
+                    CURSOR_TYPE);
+            Map<String, AttributeValue> exclusiveStartKey = new LinkedHashMap<>();
+            key.forEach((name, value) -> exclusiveStartKey.put(name, toAttributeValue(value)));
+            return exclusiveStartKey;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static Map<String, String> toTypedValue(String name, AttributeValue value) {
+        if (value.getS() != null) {
+            return Map.of(STRING_TYPE, value.getS());
+        } else if (value.getN() != null) {
+            return Map.of(NUMBER_TYPE, value.getN());
+        }
+        throw new IllegalStateException("Unsupported key attribute type for: " + name);
+    }
+
+    private static AttributeValue toAttributeValue(Map<String, String> typedValue) {
+        if (typedValue == null || typedValue.size() != 1) {
+            throw new IllegalArgumentException("Key attribute must have exactly one type");
+        } else if (typedValue.containsKey(STRING_TYPE)) {
+            return new AttributeValue().withS(typedValue.get(STRING_TYPE));
+        } else if (typedValue.containsKey(NUMBER_TYPE)) {
+            return new AttributeValue().withN(typedValue.get(NUMBER_TYPE));
+        }
+        throw new IllegalArgumentException("Unsupported key attribute type: " + typedValue.keySet());
+    }
+}
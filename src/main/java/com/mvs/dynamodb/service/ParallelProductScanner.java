@@ -0,0 +1,178 @@
+package com.mvs.dynamodb.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.PreDestroy;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.google.common.base.Preconditions;
+import com.mvs.dynamodb.config.BoundedExecutorFactory;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.repository.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk-read engine that splits the product table into Segment/TotalSegments workers and merges their pages into
+ * a single stream. Workers hand items over through a bounded buffer, so a slow consumer throttles the scan instead
+ * of the whole table being held in memory.
+ */
+@Slf4j
+@Component
+public class ParallelProductScanner {
+    private static final Object SEGMENT_DONE = new Object();
+    private static final long OFFER_TIMEOUT_MS = 100L;
+
+    private final ProductRepository productRepository;
+    private final ExecutorService executor;
+    private final int totalSegments;
+    private final int pageSize;
+    private final int bufferSize;
+
+    @Autowired
+    public ParallelProductScanner(final ProductRepository productRepository,
+            final BoundedExecutorFactory executorFactory,
+            @Value("${product.scan.total-segments:4}") int totalSegments,
+            @Value("${product.scan.page-size:500}") int pageSize,
+            @Value("${product.scan.buffer-size:1000}") int bufferSize,
+            @Value("${product.scan.max-threads:8}") int maxThreads,
+            @Value("${product.scan.max-queued-segments:64}") int maxQueuedSegments) {
+        this.productRepository = productRepository;
+        this.totalSegments = totalSegments;
+        this.pageSize = pageSize;
+        this.bufferSize = bufferSize;
+        this.executor = executorFactory.newExecutor("product-scan", maxThreads, maxQueuedSegments);
+    }
+
+    // streams every product using the configured degree of parallelism
+    public Stream<Product> scan() {
+        return scan(totalSegments);
+    }
+
+    // the returned stream must be closed, closing it stops the segment workers that are still running
+    public Stream<Product> scan(int segments) {
+        Preconditions.checkArgument(segments > 0, "segments must be positive: %s", segments);
+        SegmentBuffer buffer = new SegmentBuffer(segments, bufferSize);
+        List<Future<?>> workers = new ArrayList<>(segments);
+        try {
+            for (int segment = 0; segment < segments; segment++) {
+                final int current = segment;
+                workers.add(executor.submit(() -> scanSegment(current, segments, buffer)));
+            }
+        } catch (RejectedExecutionException e) {
+            buffer.close();
+            workers.forEach(worker -> worker.cancel(true));
+            throw e;
+        }
+        return StreamSupport.stream(buffer, false).onClose(() -> {
+            buffer.close();
+            workers.forEach(worker -> worker.cancel(true));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void scanSegment(int segment, int segments, SegmentBuffer buffer) {
+        try {
+            Map<String, AttributeValue> startKey = null;
+            do {
+                ScanResultPage<Product> page = productRepository.findSegmentPage(segment, segments, pageSize,
+                        startKey);
+                for (Product product : page.getResults()) {
+                    buffer.put(product);
+                }
+                startKey = page.getLastEvaluatedKey();
+            } while (startKey != null);
+            buffer.put(SEGMENT_DONE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Scan of segment {}/{} failed", segment, segments, e);
+            buffer.fail(e);
+        }
+    }
+
+    private record SegmentFailure(RuntimeException cause) {
+    }
+
+    private static final class SegmentBuffer extends Spliterators.AbstractSpliterator<Product> {
+        private final BlockingQueue<Object> queue;
+        private int remainingSegments;
+        private volatile boolean closed;
+
+        SegmentBuffer(int segments, int capacity) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.remainingSegments = segments;
+        }
+
+        void put(Object element) throws InterruptedException {
+            while (!closed) {
+                if (queue.offer(element, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+            throw new InterruptedException("Scan stream has been closed");
+        }
+
+        void fail(RuntimeException cause) {
+            try {
+                put(new SegmentFailure(cause));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Product> action) {
+            while (remainingSegments > 0) {
+                Object element = take();
+                if (element == SEGMENT_DONE) {
+                    remainingSegments--;
+                } else if (element instanceof SegmentFailure failure) {
+                    remainingSegments = 0;
+                    throw failure.cause();
+                } else {
+                    action.accept((Product) element);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Object take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for scan results", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mvs.dynamodb.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
+
+// non-blocking view of ProductService, the returned futures complete once DynamoDB has answered
+public interface ProductAsyncService {
+    CompletableFuture<Product> create(@NotNull Product product);
+
+    CompletableFuture<BatchCreateResult> createAll(@NotNull List<Product> products);
+
+    CompletableFuture<Product> getById(@NotEmpty String id);
+
+    CompletableFuture<ProductBatchGetResult> getByIds(@NotNull Collection<String> ids);
+
+    CompletableFuture<Product> update(@NotNull Product product, @NotNull Set<Long> expectedVersions);
+
+    CompletableFuture<Product> patch(@NotEmpty String id, @NotNull Map<String, Object> patch,
+            @NotNull Set<Long> expectedVersions);
+
+    CompletableFuture<Void> delete(@NotEmpty String id);
+
+    CompletableFuture<List<Product>> getAll();
+
+    CompletableFuture<ProductPage> getPage(int limit, String cursor);
+
+    CompletableFuture<ProductPage> getPageByCategory(@NotNull CategoryQuery query, int limit, String cursor);
+}
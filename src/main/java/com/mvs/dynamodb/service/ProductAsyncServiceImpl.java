@@ -0,0 +1,110 @@
+package com.mvs.dynamodb.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import com.mvs.dynamodb.config.BoundedExecutorFactory;
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs ProductService calls on a dedicated bounded I/O pool so request threads are released while DynamoDB is
+ * being called. The DynamoDB mapper has no asynchronous API and the SDK's async client is itself a thread pool
+ * around the blocking client, so delegating here keeps caching and conditional writes in a single code path.
+ * When the pool and its queue are full the returned future fails with RejectedExecutionException.
+ */
+@Service
+public class ProductAsyncServiceImpl implements ProductAsyncService {
+    private final ProductService productService;
+    private final ExecutorService executor;
+
+    @Autowired
+    public ProductAsyncServiceImpl(final ProductService productService,
+            final BoundedExecutorFactory executorFactory,
+            @Value("${product.async.max-threads:64}") int maxThreads,
+            @Value("${product.async.max-queued-requests:512}") int maxQueuedRequests) {
+        this.productService = productService;
+        this.executor = executorFactory.newExecutor("product-io", maxThreads, maxQueuedRequests);
+    }
+
+    @Override
+    public CompletableFuture<Product> create(Product product) {
+        return supply(() -> productService.create(product));
+    }
+
+    @Override
+    public CompletableFuture<BatchCreateResult> createAll(List<Product> products) {
+        return supply(() -> productService.createAll(products));
+    }
+
+    @Override
+    public CompletableFuture<Product> getById(String id) {
+        return supply(() -> productService.getById(id));
+    }
+
+    @Override
+    public CompletableFuture<ProductBatchGetResult> getByIds(Collection<String> ids) {
+        return supply(() -> productService.getByIds(ids));
+    }
+
+    @Override
+    public CompletableFuture<Product> update(Product product, Set<Long> expectedVersions) {
+        return supply(() -> productService.update(product, expectedVersions));
+    }
+
+    @Override
+    public CompletableFuture<Product> patch(String id, Map<String, Object> patch, Set<Long> expectedVersions) {
+        return supply(() -> productService.patch(id, patch, expectedVersions));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String id) {
+        return supply(() -> {
+            productService.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Product>> getAll() {
+        return supply(productService::getAll);
+    }
+
+    @Override
+    public CompletableFuture<ProductPage> getPage(int limit, String cursor) {
+        return supply(() -> productService.getPage(limit, cursor));
+    }
+
+    @Override
+    public CompletableFuture<ProductPage> getPageByCategory(CategoryQuery query, int limit, String cursor) {
+        return supply(() -> productService.getPageByCategory(query, limit, cursor));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
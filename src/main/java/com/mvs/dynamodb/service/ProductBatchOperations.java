@@ -0,0 +1,131 @@
+package com.mvs.dynamodb.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.google.common.collect.Lists;
+import com.mvs.dynamodb.config.BoundedExecutorFactory;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.repository.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits bulk requests into DynamoDB sized batches and runs them concurrently on a bounded pool. When the pool
+ * is saturated the batch runs on the calling thread, which slows the caller down instead of failing the request.
+ */
+@Slf4j
+@Component
+public class ProductBatchOperations {
+    static final int MAX_BATCH_WRITE_ITEMS = 25;
+    static final int MAX_BATCH_GET_ITEMS = 100;
+    private static final String ID_ATTRIBUTE = "id";
+    // per item messages are sent to clients, the exceptions behind them are only logged
+    private static final String UNPROCESSED_MESSAGE = "Item was not processed after retries";
+    private static final String WRITE_FAILED_MESSAGE = "Item could not be written";
+
+    private final ProductRepository productRepository;
+    private final ExecutorService executor;
+
+    @Autowired
+    public ProductBatchOperations(final ProductRepository productRepository,
+            final BoundedExecutorFactory executorFactory,
+            @Value("${product.batch.max-threads:8}") int maxThreads,
+            @Value("${product.batch.max-queued-batches:64}") int maxQueuedBatches) {
+        this.productRepository = productRepository;
+        this.executor = executorFactory.newExecutor("product-batch", maxThreads, maxQueuedBatches);
+    }
+
+    // writes every product and returns the ids that could not be written, mapped to the reason
+    public Map<String, String> saveAll(List<Product> products) {
+        Map<String, String> failures = new HashMap<>();
+        fanOut(Lists.partition(products, MAX_BATCH_WRITE_ITEMS), this::writeBatch)
+                .forEach(batch -> failures.putAll(batch.join()));
+        return failures;
+    }
+
+    // loads the products that exist, ids without an item are simply absent from the result
+    public List<Product> loadAll(List<String> ids) {
+        List<Product> products = new ArrayList<>(ids.size());
+        for (CompletableFuture<List<Product>> batch : fanOut(Lists.partition(ids, MAX_BATCH_GET_ITEMS),
+                productRepository::batchLoad)) {
+            products.addAll(join(batch));
+        }
+        return products;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    <T, R> List<CompletableFuture<R>> fanOut(List<T> batches, Function<T, R> operation) {
+        return batches.stream()
+                .map(batch -> submit(() -> operation.apply(batch)))
+                .collect(Collectors.toList());
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <R> CompletableFuture<R> submit(Supplier<R> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+    }
+
+    private Map<String, String> writeBatch(List<Product> batch) {
+        Map<String, String> failures = new HashMap<>();
+        try {
+            for (DynamoDBMapper.FailedBatch failedBatch : productRepository.batchWrite(batch)) {
+                if (failedBatch.getException() != null) {
+                    log.error("Batch write of {} products failed", batch.size(), failedBatch.getException());
+                }
+                String message = failedBatch.getException() != null ? WRITE_FAILED_MESSAGE : UNPROCESSED_MESSAGE;
+                if (failedBatch.getUnprocessedItems() == null) {
+                    batch.forEach(product -> failures.put(product.getId(), message));
+                    continue;
+                }
+                failedBatch.getUnprocessedItems().values().stream()
+                        .flatMap(List::stream)
+                        .map(WriteRequest::getPutRequest)
+                        .filter(Objects::nonNull)
+                        .map(PutRequest::getItem)
+                        .forEach(item -> failures.put(item.get(ID_ATTRIBUTE).getS(), message));
+            }
+        } catch (RuntimeException e) {
+            log.error("Batch write of {} products failed", batch.size(), e);
+            batch.forEach(product -> failures.put(product.getId(), WRITE_FAILED_MESSAGE));
+        }
+        return failures;
+    }
+}
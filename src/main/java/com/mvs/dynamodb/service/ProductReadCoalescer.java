@@ -0,0 +1,145 @@
+package com.mvs.dynamodb.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Lets concurrent identical reads share one DynamoDB call. The first caller for an operation and key runs the
+ * read, callers arriving while it is in flight wait up to the timeout for it and get a copy of the same result or
+ * the same exception. Nothing is kept once the read completes. A shared result is as old as the start of the read,
+ * so a caller that arrives late can get data that a write has replaced meanwhile. Writes call invalidate for their
+ * key, which makes later callers start a new read and has a read that is still running repeated before its result
+ * is shared or cached. Callers are counted as "executed" or "shared" in product.read.coalescing, per operation,
+ * and shared callers that stop waiting and read on their own once more as "timed-out".
+ */
+@Component
+public class ProductReadCoalescer implements MeterBinder {
+    private static final String EXECUTED = "executed";
+    private static final String SHARED = "shared";
+    private static final String TIMED_OUT = "timed-out";
+    // reads repeated because writes of the key kept landing while they ran
+    private static final int MAX_REPEATED_READS = 2;
+
+    private final ConcurrentMap<Flight, Call> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private volatile MeterRegistry registry;
+
+    @Autowired
+    public ProductReadCoalescer(@Value("${product.read-coalescing.enabled:true}") boolean enabled,
+            @Value("${product.read-coalescing.timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    // waiting callers get copy applied to the result, so callers never share mutable products or lists
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String operation, Object key, Supplier<V> read, UnaryOperator<V> copy) {
+        if (!enabled) {
+            return read.get();
+        }
+        Flight flight = new Flight(operation, key);
+        Call call = new Call();
+        Call running = inFlight.putIfAbsent(flight, call);
+        if (running != null) {
+            count(operation, SHARED);
+            try {
+                return copy.apply((V) await(running));
+            } catch (TimeoutException e) {
+                // the shared read is stuck, this caller reads on its own instead of waiting any longer
+                count(operation, TIMED_OUT);
+                return read.get();
+            }
+        }
+
+        count(operation, EXECUTED);
+        V value;
+        try {
+            value = read.get();
+            for (int repeated = 0; call.invalidated && repeated < MAX_REPEATED_READS; repeated++) {
+                // a write of the key landed while reading, the value may predate it
+                call.invalidated = false;
+                value = read.get();
+            }
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flight, call);
+            call.result.completeExceptionally(e);
+            throw e;
+        }
+        // removed first, so callers arriving from now on start a new read instead of getting this result
+        inFlight.remove(flight, call);
+        call.result.complete(value);
+        return value;
+    }
+
+    // called by writes once they are stored
+    public void invalidate(String operation, Object key) {
+        if (!enabled) {
+            return;
+        }
+        Call call = inFlight.remove(new Flight(operation, key));
+        if (call != null) {
+            call.invalidated = true;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.read.coalescing.in-flight", inFlight, ConcurrentMap::size)
+                .description("Product reads currently shared by concurrent callers")
+                .register(registry);
+        this.registry = registry;
+    }
+
+    private void count(String operation, String result) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            Counter.builder("product.read.coalescing")
+                    .description("Product reads that ran a DynamoDB call or shared one already in flight")
+                    .tags("operation", operation, "result", result)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private Object await(Call running) throws TimeoutException {
+        try {
+            return running.result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared product read", e);
+        }
+    }
+
+    private record Flight(String operation, Object key) {
+    }
+
+    private static final class Call {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+}
@@ -1,20 +1,45 @@
 package com.mvs.dynamodb.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
 import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
 
 public interface ProductService {
     Product create(@NotNull Product product);
 
+    BatchCreateResult createAll(@NotNull List<Product> products);
+
     Product getById(@NotEmpty String id);
 
-    Product update(@NotNull Product product);
+    ProductBatchGetResult getByIds(@NotNull Collection<String> ids);
+
+    // with expected versions the product is only written while the stored product is at one of them, an empty set
+    // replaces whichever version is stored
+    Product update(@NotNull Product product, @NotNull Set<Long> expectedVersions);
+
+    // applies a JSON merge patch of name, category and price with a single conditional write; every property is
+    // required, so null, which removes a property in a merge patch, is rejected; returns the patched product
+    Product patch(@NotEmpty String id, @NotNull Map<String, Object> patch, @NotNull Set<Long> expectedVersions);
 
     void delete(@NotEmpty String id);
 
     List<Product> getAll();
+
+    ProductPage getPage(int limit, String cursor);
+
+    ProductPage getPageByCategory(@NotNull CategoryQuery query, int limit, String cursor);
+
+    // reads the whole table with a parallel scan, callers must close the returned stream
+    Stream<Product> streamAll();
 }
@@ -1,52 +1,512 @@
 package com.mvs.dynamodb.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
+import com.mvs.dynamodb.config.CacheConfig;
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.BatchItemResult;
+import com.mvs.dynamodb.model.CategoryQuery;
 import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
 import com.mvs.dynamodb.repository.ProductRepository;
+import com.mvs.dynamodb.web.exception.BatchSizeExceededException;
+import com.mvs.dynamodb.web.exception.InvalidPatchException;
+import com.mvs.dynamodb.web.exception.InvalidPriceRangeException;
+import com.mvs.dynamodb.web.exception.ProductConflictException;
 import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+import com.mvs.dynamodb.web.exception.ProductVersionMismatchException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ProductServiceImpl implements ProductService {
     private static final String PRODUCT_NOT_FOUND_MESSAGE = "Product not found for id: %s";
+    private static final String PRODUCT_NOT_UPDATED_MESSAGE = "No data found for id: %s";
+    private static final String VERSION_MISMATCH_MESSAGE = "Product %s is not at any of the versions %s";
+    private static final String CONFLICT_MESSAGE = "Product %s kept changing while it was written";
+    private static final String UNPATCHABLE_PROPERTY_MESSAGE = "Only name, category and price can be patched";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_REPLACE_ATTEMPTS = 3;
+    private static final long FIRST_VERSION = 1L;
+    private static final String NAME_PROPERTY = "name";
+    private static final String CATEGORY_PROPERTY = "category";
+    private static final String PRICE_PROPERTY = "price";
+    private static final Object INVALID = new Object();
+    private static final String GET_BY_ID = "getById";
 
 
     private final ProductRepository productRepository;
+    private final ParallelProductScanner productScanner;
+    private final ProductBatchOperations batchOperations;
+    private final ProductWriteBuffer writeBuffer;
+    private final ProductReadCoalescer readCoalescer;
+    private final Validator validator;
+    private final Cache productCache;
+    private final int maxBatchItems;
+    // serializes buffered updates of a product, so each of them is given its own version
+    private final Striped<Lock> bufferedUpdateLocks = Striped.lock(64);
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ParallelProductScanner productScanner,
+            ProductBatchOperations batchOperations, ProductWriteBuffer writeBuffer,
+            ProductReadCoalescer readCoalescer, Validator validator, CacheManager cacheManager,
+            @Value("${product.batch.max-items:1000}") int maxBatchItems) {
         this.productRepository = productRepository;
+        this.productScanner = productScanner;
+        this.batchOperations = batchOperations;
+        this.writeBuffer = writeBuffer;
+        this.readCoalescer = readCoalescer;
+        this.validator = validator;
+        this.productCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        this.maxBatchItems = maxBatchItems;
     }
 
     @Override
     public Product create(Product product) {
-        return productRepository.save(product);
+        Product created = store(product);
+        // an explicitly given id can replace a cached product
+        productCache.evict(created.getId());
+        readCoalescer.invalidate(GET_BY_ID, created.getId());
+        return created;
     }
 
     @Override
+    public BatchCreateResult createAll(List<Product> products) {
+        if (products.size() > maxBatchItems) {
+            throw new BatchSizeExceededException(
+                    String.format("Batch of %d products exceeds the limit of %d", products.size(), maxBatchItems));
+        }
+
+        // validate and assign ids up front, only the valid products are sent to DynamoDB
+        List<BatchItemResult> results = new ArrayList<>(products.size());
+        List<Product> valid = new ArrayList<>(products.size());
+        List<String> givenIds = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (int index = 0; index < products.size(); index++) {
+            Product product = products.get(index);
+            String violations = violations(product);
+            if (violations != null) {
+                results.add(new BatchItemResult(index, product == null ? null : product.getId(),
+                        BatchItemResult.Status.INVALID, violations));
+                continue;
+            }
+            boolean idGiven = !Strings.isNullOrEmpty(product.getId());
+            assignIdAndVersion(product);
+            if (!ids.add(product.getId())) {
+                results.add(new BatchItemResult(index, product.getId(), BatchItemResult.Status.INVALID,
+                        "Duplicate id in batch"));
+                continue;
+            }
+            if (idGiven) {
+                givenIds.add(product.getId());
+            }
+            valid.add(product);
+            results.add(null);
+        }
+
+        // BatchWriteItem cannot be conditional, so products that would be written over are looked up first and
+        // replaced with the next version. A write landing between the lookup and the batch can still be overwritten
+        Map<String, Long> existing = existingVersions(givenIds);
+        valid.stream()
+                .filter(product -> existing.containsKey(product.getId()))
+                .forEach(product -> product.setVersion(nextVersion(existing.get(product.getId()))));
+        if (writeBuffer.isEnabled()) {
+            // the batch is newer than any buffered write of the same products
+            valid.forEach(product -> writeBuffer.discard(product.getId()));
+        }
+        Map<String, String> failures = batchOperations.saveAll(valid);
+        // batch writes replace whole items, so cached copies of explicitly given ids are stale now
+        valid.forEach(product -> {
+            productCache.evict(product.getId());
+            readCoalescer.invalidate(GET_BY_ID, product.getId());
+        });
+        for (int index = 0; index < products.size(); index++) {
+            if (results.get(index) == null) {
+                String id = products.get(index).getId();
+                BatchItemResult.Status status = failures.containsKey(id) ? BatchItemResult.Status.FAILED
+                        : existing.containsKey(id) ? BatchItemResult.Status.REPLACED
+                        : BatchItemResult.Status.CREATED;
+                results.set(index, new BatchItemResult(index, id, status, failures.get(id)));
+            }
+        }
+        return BatchCreateResult.of(results);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public Product getById(String id) {
-        return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(String.format(PRODUCT_NOT_FOUND_MESSAGE, id)));
+        Optional<Product> buffered = writeBuffer.get(id);
+        if (buffered.isPresent()) {
+            return buffered.get();
+        }
+        return readCoalescer.execute(GET_BY_ID, id, () -> productRepository.findById(id),
+                found -> found.map(ProductServiceImpl::copyOf))
+                .orElseThrow(() -> new ProductNotFoundException(String.format(PRODUCT_NOT_FOUND_MESSAGE, id)));
+    }
+
+    @Override
+    public ProductBatchGetResult getByIds(Collection<String> ids) {
+        Set<String> uniqueIds = ids.stream()
+                .filter(id -> !Strings.isNullOrEmpty(id))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.size() > maxBatchItems) {
+            throw new BatchSizeExceededException(
+                    String.format("Batch of %d ids exceeds the limit of %d", uniqueIds.size(), maxBatchItems));
+        }
+
+        List<String> orderedIds = new ArrayList<>(uniqueIds);
+        Map<String, Product> loaded = readCoalescer.execute("getByIds", orderedIds,
+                () -> batchOperations.loadAll(orderedIds), ProductServiceImpl::copyOfAll).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> found = new ArrayList<>(loaded.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : uniqueIds) {
+            if (loaded.containsKey(id)) {
+                found.add(loaded.get(id));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatchGetResult(found, missing);
     }
 
     @Override
     public List<Product> getAll() {
-        return Lists.newArrayList(productRepository.findAll());
+        return readCoalescer.execute("getAll", "", () -> Lists.newArrayList(productRepository.findAll()),
+                ProductServiceImpl::copyOfAll);
     }
 
     @Override
-    public Product update(Product product) {
-        if (!productRepository.existsById(product.getId())) {
-            throw new ProductNotFoundException("No data found for id: " + product.getId());
+    public ProductPage getPage(int limit, String cursor) {
+        int pageSize = pageSize(limit);
+        Map<String, AttributeValue> startKey = PageCursorCodec.decode(cursor);
+        return readCoalescer.execute("getPage", Arrays.asList(pageSize, cursor), () -> {
+            ScanResultPage<Product> page = productRepository.findPage(pageSize, startKey);
+            return new ProductPage(page.getResults(), PageCursorCodec.encode(page.getLastEvaluatedKey()));
+        }, ProductServiceImpl::copyOfPage);
+    }
+
+    @Override
+    public ProductPage getPageByCategory(CategoryQuery query, int limit, String cursor) {
+        if (query.minPrice() != null && query.maxPrice() != null && query.minPrice() > query.maxPrice()) {
+            throw new InvalidPriceRangeException(String.format("Minimum price %s is greater than maximum price %s",
+                    query.minPrice(), query.maxPrice()));
         }
-        return productRepository.save(product);
+        int pageSize = pageSize(limit);
+        Map<String, AttributeValue> startKey = PageCursorCodec.decode(cursor);
+        return readCoalescer.execute("getPageByCategory", Arrays.asList(query, pageSize, cursor), () -> {
+            QueryResultPage<Product> page = productRepository.findByCategory(query, pageSize, startKey);
+            return new ProductPage(page.getResults(), PageCursorCodec.encode(page.getLastEvaluatedKey()));
+        }, ProductServiceImpl::copyOfPage);
     }
 
     @Override
+    public Stream<Product> streamAll() {
+        return productScanner.scan();
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#result.id")
+    public Product update(Product product, Set<Long> expectedVersions) {
+        Product updated;
+        if (writeBuffer.isEnabled()) {
+            updated = bufferUpdate(product, expectedVersions);
+        } else if (expectedVersions.isEmpty()) {
+            updated = replace(product);
+        } else {
+            updated = saveIfVersion(product, expectedVersions);
+        }
+        readCoalescer.invalidate(GET_BY_ID, updated.getId());
+        return updated;
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public Product patch(String id, Map<String, Object> patch, Set<Long> expectedVersions) {
+        Product patched = patchStored(id, patchChanges(patch), expectedVersions);
+        readCoalescer.invalidate(GET_BY_ID, id);
+        return patched;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void delete(String id) {
+        writeBuffer.discard(id);
         productRepository.deleteById(id);
+        readCoalescer.invalidate(GET_BY_ID, id);
+    }
+
+    private Product store(Product product) {
+        if (writeBuffer.isEnabled()) {
+            return bufferCreate(product);
+        }
+        product.setVersion(null);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return productRepository.save(product);
+            } catch (ConditionalCheckFailedException e) {
+                // the given id is taken, creating it again replaces the stored product. The next save expects the
+                // version stored now, or no product if it has been deleted meanwhile
+                if (attempt == MAX_REPLACE_ATTEMPTS) {
+                    throw new ProductConflictException(String.format(CONFLICT_MESSAGE, product.getId()));
+                }
+                product.setVersion(productRepository.findById(product.getId()).map(Product::getVersion).orElse(null));
+            }
+        }
+    }
+
+    // a buffered put cannot be conditional, so a product of an explicitly given id continues the current version
+    private Product bufferCreate(Product product) {
+        if (Strings.isNullOrEmpty(product.getId())) {
+            assignIdAndVersion(product);
+            writeBuffer.put(product);
+            return product;
+        }
+        Lock lock = bufferedUpdateLocks.get(product.getId());
+        lock.lock();
+        try {
+            product.setVersion(writeBuffer.get(product.getId())
+                    .or(() -> productRepository.findById(product.getId()))
+                    .map(current -> nextVersion(current.getVersion()))
+                    .orElse(FIRST_VERSION));
+            writeBuffer.put(product);
+            return product;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // a save checks a single version, so each expected version is tried with its own conditional write
+    private Product saveIfVersion(Product product, Set<Long> expectedVersions) {
+        for (Long expectedVersion : expectedVersions) {
+            product.setVersion(expectedVersion);
+            try {
+                return productRepository.saveIfExists(product);
+            } catch (ConditionalCheckFailedException e) {
+                // not at this version, or not stored at all
+            }
+        }
+        if (!productRepository.existsById(product.getId())) {
+            throw new ProductNotFoundException(String.format(PRODUCT_NOT_UPDATED_MESSAGE, product.getId()));
+        }
+        throw new ProductVersionMismatchException(
+                String.format(VERSION_MISMATCH_MESSAGE, product.getId(), expectedVersions));
+    }
+
+    private Product patchStored(String id, Map<String, Object> changes, Set<Long> expectedVersions) {
+        if (writeBuffer.isEnabled()) {
+            Lock lock = bufferedUpdateLocks.get(id);
+            lock.lock();
+            try {
+                Optional<Product> buffered = writeBuffer.get(id);
+                if (buffered.isPresent()) {
+                    // an UpdateItem now would be overwritten by the buffered put, so the buffered product is patched
+                    return patchBuffered(buffered.get(), changes, expectedVersions);
+                }
+                return updateAttributes(id, changes, expectedVersions);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return updateAttributes(id, changes, expectedVersions);
+    }
+
+    private Product updateAttributes(String id, Map<String, Object> changes, Set<Long> expectedVersions) {
+        try {
+            return productRepository.updateAttributes(id, changes, expectedVersions);
+        } catch (ConditionalCheckFailedException e) {
+            if (expectedVersions.isEmpty() || !productRepository.existsById(id)) {
+                throw new ProductNotFoundException(String.format(PRODUCT_NOT_UPDATED_MESSAGE, id));
+            }
+            throw new ProductVersionMismatchException(String.format(VERSION_MISMATCH_MESSAGE, id, expectedVersions));
+        }
+    }
+
+    private Product patchBuffered(Product buffered, Map<String, Object> changes, Set<Long> expectedVersions) {
+        // a buffered product without a version continues the stored one rather than starting over
+        Long current = buffered.getVersion() != null ? buffered.getVersion()
+                : productRepository.findById(buffered.getId()).map(Product::getVersion).orElse(null);
+        if (!expectedVersions.isEmpty() && !expectedVersions.contains(current)) {
+            throw new ProductVersionMismatchException(String.format(VERSION_MISMATCH_MESSAGE, buffered.getId(),
+                    expectedVersions));
+        }
+        Product patched = buffered.toBuilder().build();
+        changes.forEach((property, value) -> {
+            switch (property) {
+                case NAME_PROPERTY -> patched.setName((String) value);
+                case CATEGORY_PROPERTY -> patched.setCategory((String) value);
+                case PRICE_PROPERTY -> patched.setPrice((Double) value);
+                default -> throw new IllegalStateException("Unexpected patch property " + property);
+            }
+        });
+        patched.setVersion(nextVersion(current));
+        writeBuffer.put(patched);
+        return patched;
+    }
+
+    // checks a merge patch against the product's constraints and converts its JSON values to attribute types. Every
+    // property is required, so a null value fails validation instead of removing the property
+    private Map<String, Object> patchChanges(Map<String, Object> patch) {
+        if (patch.isEmpty()) {
+            throw new InvalidPatchException("Patch does not change any property");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+        patch.forEach((property, value) -> {
+            Object converted = switch (property) {
+                case NAME_PROPERTY, CATEGORY_PROPERTY -> value == null || value instanceof String ? value : INVALID;
+                case PRICE_PROPERTY -> value == null ? null : value instanceof Number number ? number.doubleValue()
+                        : INVALID;
+                default -> throw new InvalidPatchException(UNPATCHABLE_PROPERTY_MESSAGE,
+                        "Property " + property + " cannot be patched");
+            };
+            if (converted == INVALID) {
+                violations.add("Invalid value for " + property);
+                return;
+            }
+            validator.validateValue(Product.class, property, converted).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .forEach(violations::add);
+            changes.put(property, converted);
+        });
+        if (!violations.isEmpty()) {
+            throw new InvalidPatchException(violations.stream().sorted().collect(Collectors.joining(", ")));
+        }
+        return changes;
+    }
+
+    // replaces whichever version is stored, starting from the cached version so one write is usually enough
+    private Product replace(Product product) {
+        Product cached = productCache.get(product.getId(), Product.class);
+        product.setVersion(cached == null ? null : cached.getVersion());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return productRepository.saveIfExists(product);
+            } catch (ConditionalCheckFailedException e) {
+                Product current = productRepository.findById(product.getId()).orElseThrow(() ->
+                        new ProductNotFoundException(String.format(PRODUCT_NOT_UPDATED_MESSAGE, product.getId())));
+                // the client sent no If-Match, so running out of attempts is a conflict and not a failed precondition
+                if (attempt == MAX_REPLACE_ATTEMPTS) {
+                    throw new ProductConflictException(String.format(CONFLICT_MESSAGE, product.getId()));
+                }
+                product.setVersion(current.getVersion());
+            }
+        }
+    }
+
+    // a buffered put cannot be conditional, so existence and version are checked when the write is accepted
+    private Product bufferUpdate(Product product, Set<Long> expectedVersions) {
+        String id = product.getId();
+        Lock lock = bufferedUpdateLocks.get(id);
+        lock.lock();
+        try {
+            Product current = writeBuffer.get(id)
+                    .or(() -> Optional.ofNullable(productCache.get(id, Product.class)))
+                    .or(() -> productRepository.findById(id))
+                    .orElseThrow(() -> new ProductNotFoundException(String.format(PRODUCT_NOT_UPDATED_MESSAGE, id)));
+            if (!expectedVersions.isEmpty() && !expectedVersions.contains(current.getVersion())) {
+                throw new ProductVersionMismatchException(
+                        String.format(VERSION_MISMATCH_MESSAGE, id, expectedVersions));
+            }
+            product.setVersion(nextVersion(current.getVersion()));
+            writeBuffer.put(product);
+            return product;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // current versions of the given products that are stored or waiting in the write-behind buffer, by id. The
+    // version is null for products stored before versioning
+    private Map<String, Long> existingVersions(List<String> ids) {
+        Map<String, Long> existing = new HashMap<>();
+        List<String> unbuffered = new ArrayList<>();
+        for (String id : ids) {
+            Optional<Product> buffered = writeBuffer.get(id);
+            if (buffered.isPresent()) {
+                existing.put(id, buffered.get().getVersion());
+            } else {
+                unbuffered.add(id);
+            }
+        }
+        if (!unbuffered.isEmpty()) {
+            batchOperations.loadAll(unbuffered).forEach(product -> existing.put(product.getId(), product.getVersion()));
+        }
+        return existing;
+    }
+
+    // new products start at the first version, products replacing a stored one get their version when it is known
+    private static void assignIdAndVersion(Product product) {
+        if (Strings.isNullOrEmpty(product.getId())) {
+            product.setId(UUID.randomUUID().toString());
+        }
+        product.setVersion(FIRST_VERSION);
+    }
+
+    private static long nextVersion(Long current) {
+        return current == null ? FIRST_VERSION : current + 1;
+    }
+
+    private static Product copyOf(Product product) {
+        return product.toBuilder().build();
+    }
+
+    private static List<Product> copyOfAll(List<Product> products) {
+        return products.stream().map(ProductServiceImpl::copyOf).collect(Collectors.toList());
+    }
+
+    private static ProductPage copyOfPage(ProductPage page) {
+        return new ProductPage(copyOfAll(page.items()), page.nextCursor());
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private String violations(Product product) {
+        if (product == null) {
+            return "Product cannot be null";
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 }
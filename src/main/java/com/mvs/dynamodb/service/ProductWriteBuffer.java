@@ -0,0 +1,282 @@
+package com.mvs.dynamodb.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mvs.dynamodb.model.Product;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind buffer for single product writes, enabled with product.write-behind.enabled. Writes are kept by id,
+ * so repeated writes of a product between two flushes cost one item write and the last one wins. The buffer is
+ * flushed with batch writes every flush-interval, or as soon as flush-size products are pending, and once more on
+ * shutdown. Products that fail to be written are put back and retried with the next flush unless a newer write
+ * replaced them. After max-attempts failed flushes a product is dropped, logged and counted as
+ * product.write-behind.dropped. When max-pending products are buffered, writers wait up to max-wait for a flush to
+ * make room and then fail with RejectedExecutionException, which is answered with 503.
+ *
+ * Writes are acknowledged before they reach DynamoDB: they are lost if the process dies before a flush, and a
+ * product that is dropped after being acknowledged is never written.
+ */
+@Slf4j
+@Component
+public class ProductWriteBuffer implements MeterBinder {
+    private final ProductBatchOperations batchOperations;
+    private final boolean enabled;
+    private final int maxPending;
+    private final int flushSize;
+    private final long maxWaitNanos;
+    private final int maxAttempts;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    // held while a flush writes, so a delete can wait until an in-flight write of the same product has landed
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService flusher;
+    // guarded by lock, in first-write order
+    private Map<String, Product> pending = new LinkedHashMap<>();
+    // guarded by lock, products taken by the running flush
+    private Map<String, Product> inFlight = Map.of();
+    // guarded by lock, failed flushes of the products that are retried
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+
+    @Autowired
+    public ProductWriteBuffer(final ProductBatchOperations batchOperations,
+            @Value("${product.write-behind.enabled:false}") boolean enabled,
+            @Value("${product.write-behind.max-pending:10000}") int maxPending,
+            @Value("${product.write-behind.flush-size:500}") int flushSize,
+            @Value("${product.write-behind.flush-interval:200ms}") Duration flushInterval,
+            @Value("${product.write-behind.max-wait:500ms}") Duration maxWait,
+            @Value("${product.write-behind.max-attempts:5}") int maxAttempts) {
+        this.batchOperations = batchOperations;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.flushSize = Math.min(flushSize, maxPending);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("product-write-behind-%d").setDaemon(true).build());
+            long intervalMillis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // buffers the product, replacing a pending write of the same id, and waits for room when the buffer is full
+    public void put(Product product) {
+        int size;
+        lock.lock();
+        try {
+            long remainingNanos = maxWaitNanos;
+            while (pending.size() >= maxPending && !pending.containsKey(product.getId())) {
+                if (remainingNanos <= 0L) {
+                    rejected.increment();
+                    throw new RejectedExecutionException(
+                            "Write-behind buffer is full with " + pending.size() + " pending products");
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            if (pending.put(product.getId(), product) != null) {
+                coalesced.increment();
+            }
+            // a new write gets its own attempts
+            failedAttempts.remove(product.getId());
+            size = pending.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the write-behind buffer", e);
+        } finally {
+            lock.unlock();
+        }
+        if (size >= flushSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                // shutting down, the final flush picks the product up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    // the buffered product that has not been written yet, if any
+    public Optional<Product> get(String id) {
+        lock.lock();
+        try {
+            Product product = pending.get(id);
+            return Optional.ofNullable(product != null ? product : inFlight.get(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // drops a buffered write and waits for a running flush that writes the product, so it is not written afterwards
+    public void discard(String id) {
+        boolean writing;
+        lock.lock();
+        try {
+            if (pending.remove(id) != null) {
+                notFull.signalAll();
+            }
+            failedAttempts.remove(id);
+            writing = inFlight.containsKey(id);
+            if (writing) {
+                inFlight.remove(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (writing) {
+            flushLock.lock();
+            flushLock.unlock();
+        }
+    }
+
+    // writes everything that is buffered and returns the number of products that could not be written
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Product> products;
+            lock.lock();
+            try {
+                flushRequested.set(false);
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                inFlight = pending;
+                pending = new LinkedHashMap<>();
+                products = new ArrayList<>(inFlight.values());
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            Set<String> failures;
+            List<Product> droppedProducts = new ArrayList<>();
+            try {
+                failures = batchOperations.saveAll(products).keySet();
+            } catch (RuntimeException e) {
+                log.error("Write-behind flush of {} products failed", products.size(), e);
+                failures = products.stream().map(Product::getId).collect(Collectors.toSet());
+            }
+            lock.lock();
+            try {
+                for (String id : inFlight.keySet()) {
+                    if (!failures.contains(id)) {
+                        failedAttempts.remove(id);
+                    }
+                }
+                // newer writes and deletes of a failed product take precedence over the retry
+                for (String id : failures) {
+                    Product product = inFlight.get(id);
+                    if (product == null || pending.containsKey(id)) {
+                        continue;
+                    }
+                    if (failedAttempts.merge(id, 1, Integer::sum) >= maxAttempts) {
+                        failedAttempts.remove(id);
+                        droppedProducts.add(product);
+                    } else {
+                        pending.put(id, product);
+                    }
+                }
+                inFlight = Map.of();
+            } finally {
+                lock.unlock();
+            }
+            if (!failures.isEmpty()) {
+                log.warn("Write-behind flush could not write {} of {} products, retrying with the next flush",
+                        failures.size() - droppedProducts.size(), products.size());
+            }
+            droppedProducts.forEach(product -> log.error("Write-behind buffer dropped product {} after {} failed "
+                    + "flushes: {}", product.getId(), maxAttempts, product));
+            dropped.add(droppedProducts.size());
+            return failures.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("product.write-behind.pending", this, ProductWriteBuffer::pendingCount)
+                .description("Product writes buffered and not yet written to DynamoDB")
+                .register(registry);
+        FunctionCounter.builder("product.write-behind.coalesced", coalesced, LongAdder::sum)
+                .description("Buffered product writes replaced by a newer write before being flushed")
+                .register(registry);
+        FunctionCounter.builder("product.write-behind.rejected", rejected, LongAdder::sum)
+                .description("Product writes rejected because the write-behind buffer was full")
+                .register(registry);
+        FunctionCounter.builder("product.write-behind.dropped", dropped, LongAdder::sum)
+                .description("Acknowledged product writes given up after max-attempts failed flushes")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        int failed = flush();
+        if (failed > 0) {
+            log.error("Write-behind buffer lost {} product writes on shutdown", failed);
+        }
+    }
+
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+}
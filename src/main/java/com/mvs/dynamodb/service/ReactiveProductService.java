@@ -0,0 +1,45 @@
+package com.mvs.dynamodb.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductService {
+    Mono<Product> create(@NotNull Product product);
+
+    Mono<BatchCreateResult> createAll(@NotNull List<Product> products);
+
+    Mono<Product> getById(@NotEmpty String id);
+
+    Mono<ProductBatchGetResult> getByIds(@NotNull Collection<String> ids);
+
+    Mono<Product> update(@NotNull Product product, @NotNull Set<Long> expectedVersions);
+
+    Mono<Product> patch(@NotEmpty String id, @NotNull Map<String, Object> patch, @NotNull Set<Long> expectedVersions);
+
+    Mono<Void> delete(@NotEmpty String id);
+
+    // every product, read the same way as ProductService.getAll so both web stacks list them in the same order
+    Mono<List<Product>> getAll();
+
+    // emits every product of the table from the parallel scan, items are only read as fast as the subscriber
+    // requests them
+    Flux<Product> streamAll();
+
+    Mono<ProductPage> getPage(int limit, String cursor);
+
+    Mono<ProductPage> getPageByCategory(@NotNull CategoryQuery query, int limit, String cursor);
+}
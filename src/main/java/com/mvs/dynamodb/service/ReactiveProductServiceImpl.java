@@ -0,0 +1,95 @@
+package com.mvs.dynamodb.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive adapter over the asynchronous product service. Single item calls are deferred until subscription and
+ * complete on the I/O pool, so event-loop threads never wait for DynamoDB. The export is fed from the parallel
+ * scan, whose bounded buffer stops the segment workers when the subscriber stops requesting.
+ */
+@Service
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+    private final ProductService productService;
+    private final ProductAsyncService productAsyncService;
+
+    @Autowired
+    public ReactiveProductServiceImpl(final ProductService productService,
+            final ProductAsyncService productAsyncService) {
+        this.productService = productService;
+        this.productAsyncService = productAsyncService;
+    }
+
+    @Override
+    public Mono<Product> create(Product product) {
+        return Mono.fromFuture(() -> productAsyncService.create(product));
+    }
+
+    @Override
+    public Mono<BatchCreateResult> createAll(List<Product> products) {
+        return Mono.fromFuture(() -> productAsyncService.createAll(products));
+    }
+
+    @Override
+    public Mono<Product> getById(String id) {
+        return Mono.fromFuture(() -> productAsyncService.getById(id));
+    }
+
+    @Override
+    public Mono<ProductBatchGetResult> getByIds(Collection<String> ids) {
+        return Mono.fromFuture(() -> productAsyncService.getByIds(ids));
+    }
+
+    @Override
+    public Mono<Product> update(Product product, Set<Long> expectedVersions) {
+        return Mono.fromFuture(() -> productAsyncService.update(product, expectedVersions));
+    }
+
+    @Override
+    public Mono<Product> patch(String id, Map<String, Object> patch, Set<Long> expectedVersions) {
+        return Mono.fromFuture(() -> productAsyncService.patch(id, patch, expectedVersions));
+    }
+
+    @Override
+    public Mono<Void> delete(String id) {
+        return Mono.fromFuture(() -> productAsyncService.delete(id));
+    }
+
+    @Override
+    public Mono<List<Product>> getAll() {
+        return Mono.fromFuture(() -> productAsyncService.getAll());
+    }
+
+    @Override
+    public Flux<Product> streamAll() {
+        // pulling from the scan blocks while the segment workers fill the buffer, so it is kept off the event loop
+        return Flux.using(productService::streamAll, Flux::fromStream, Stream::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<ProductPage> getPage(int limit, String cursor) {
+        return Mono.fromFuture(() -> productAsyncService.getPage(limit, cursor));
+    }
+
+    @Override
+    public Mono<ProductPage> getPageByCategory(CategoryQuery query, int limit, String cursor) {
+        return Mono.fromFuture(() -> productAsyncService.getPageByCategory(query, limit, cursor));
+    }
+}
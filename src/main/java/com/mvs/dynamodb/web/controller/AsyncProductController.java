@@ -0,0 +1,114 @@
+package com.mvs.dynamodb.web.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
+import com.mvs.dynamodb.service.ProductAsyncService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Servlet API that releases the request thread while DynamoDB is being called. Each call hops to the bounded
+ * product-io pool of ProductAsyncService, so concurrency is capped by that pool and a full pool answers 503.
+ * Only worth it when Tomcat threads are the bottleneck, ProductController serves the API otherwise. The mappings
+ * and roles are declared by ProductApi.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "product.async.enabled", havingValue = "true")
+public class AsyncProductController
+        implements ProductApi<CompletableFuture<? extends ResponseEntity<?>>, ResponseEntity<ResponseBodyEmitter>> {
+
+    private final ProductAsyncService productAsyncService;
+    private final ProductExporter productExporter;
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<Product>>> retrieveAll(String ifNoneMatch) {
+        return productAsyncService.getAll()
+                .thenApply(products -> ProductETags.response(products, ifNoneMatch));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<ProductPage>> retrievePage(int limit, String cursor) {
+        return productAsyncService.getPage(limit, cursor).thenApply(ResponseEntity::ok);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<ProductPage>> retrieveByCategory(String category, Double minPrice,
+            Double maxPrice, Sort.Direction order, int limit, String cursor) {
+        CategoryQuery query = new CategoryQuery(category, minPrice, maxPrice, order.isAscending());
+        return productAsyncService.getPageByCategory(query, limit, cursor).thenApply(ResponseEntity::ok);
+    }
+
+    // the export already runs on its own pool, see ProductExporter
+    @Override
+    public ResponseEntity<ResponseBodyEmitter> export() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(productExporter.export());
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<ProductBatchGetResult>> retrieveByIds(List<String> ids) {
+        return productAsyncService.getByIds(ids).thenApply(ResponseEntity::ok);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Product>> retrieve(String id, String ifNoneMatch) {
+        return productAsyncService.getById(id)
+                .thenApply(product -> ProductETags.response(product, ifNoneMatch));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<HttpStatus>> create(Product product, UriComponentsBuilder baseUri) {
+        return productAsyncService.create(product).thenApply(created -> ResponseEntity
+                .created(ProductApi.location(baseUri, created.getId()))
+                .build());
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<BatchCreateResult>> createAll(List<Product> products) {
+        return productAsyncService.createAll(products).thenApply(result -> ResponseEntity
+                .status(result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(result));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Product>> update(String id, String ifMatch, Product product) {
+        product.setId(id);
+        return productAsyncService.update(product, ProductETags.versions(ifMatch))
+                .thenApply(updated -> ProductETags.response(updated, null));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Product>> patch(String id, String ifMatch, Map<String, Object> patch) {
+        return productAsyncService.patch(id, patch, ProductETags.versions(ifMatch))
+                .thenApply(patched -> ProductETags.response(patched, null));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<HttpStatus>> delete(String id) {
+        return productAsyncService.delete(id)
+                .thenApply(deleted -> ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+    }
+
+    @Autowired
+    public AsyncProductController(final ProductAsyncService productAsyncService,
+            final ProductExporter productExporter) {
+        this.productAsyncService = productAsyncService;
+        this.productExporter = productExporter;
+    }
+}
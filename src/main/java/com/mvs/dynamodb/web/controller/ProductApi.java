@@ -0,0 +1,104 @@
+package com.mvs.dynamodb.web.controller;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Valid;
+
+import com.mvs.dynamodb.model.Product;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Paths, parameters and roles of the product API, declared once for ProductController, AsyncProductController and
+ * ReactiveProductController. The controllers only differ in how they answer: R is the response type of every
+ * endpoint but the export, whose response type is E.
+ */
+@RequestMapping(ProductApi.PATH)
+public interface ProductApi<R, E> {
+    String PATH = "/api/v1/products";
+    String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    // listings, pages and category queries read DynamoDB only and do not show writes still buffered by write-behind
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    R retrieveAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @GetMapping(params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    R retrievePage(@RequestParam int limit, @RequestParam(required = false) String cursor);
+
+    // ordered by price, minPrice and maxPrice are inclusive and either of them can be omitted
+    @GetMapping("/category/{category}")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    R retrieveByCategory(@PathVariable String category,
+            @RequestParam(required = false) Double minPrice, @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "ASC") Sort.Direction order,
+            @RequestParam(defaultValue = "100") int limit, @RequestParam(required = false) String cursor);
+
+    // writes one JSON document per line while the table is being scanned. The servlet controllers buffer up to 64 KB
+    // of products and send them as one chunk from the export pool, see ProductExporter
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    E export();
+
+    @GetMapping(value = "/batch", params = "ids")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    R retrieveByIds(@RequestParam List<String> ids);
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    R retrieve(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    // with product.write-behind.enabled the product is only buffered when this answers, see ProductWriteBuffer.
+    // baseUri is the context path of the request, the Location of the product is built from it
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    R create(@Valid @RequestBody Product product, UriComponentsBuilder baseUri);
+
+    // per-item results are reported in the body, 207 tells the client that some items were not created
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    R createAll(@RequestBody List<Product> products);
+
+    // with product.write-behind.enabled the answer is the request body as buffered, not a stored product. The id
+    // is checked against the buffer and the product cache first, which can still hold a deleted product
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    R update(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody Product product);
+
+    // JSON merge patch of some properties, written with one UpdateItem call; answers the patched product and its
+    // new version as the ETag
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    @PreAuthorize("hasRole('ADMIN')")
+    R patch(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch);
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    R delete(@PathVariable String id);
+
+    // the Location of a created product
+    static URI location(UriComponentsBuilder baseUri, String id) {
+        return baseUri.path(PATH).path("/{id}").buildAndExpand(id).toUri();
+    }
+}
@@ -1,71 +1,101 @@
 package com.mvs.dynamodb.web.controller;
 
-import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
-import javax.validation.Valid;
-
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
 import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
 import com.mvs.dynamodb.service.ProductService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.DeleteMapping;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
 
+// served on the request thread unless product.async.enabled switches to AsyncProductController, the mappings and
+// roles are declared by ProductApi
 @RestController
-@RequestMapping("/api/v1/products")
-public class ProductController {
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "product.async.enabled", havingValue = "false", matchIfMissing = true)
+public class ProductController implements ProductApi<ResponseEntity<?>, ResponseEntity<ResponseBodyEmitter>> {
+
     private final ProductService productService;
+    private final ProductExporter productExporter;
+
+    @Override
+    public ResponseEntity<List<Product>> retrieveAll(String ifNoneMatch) {
+        return ProductETags.response(productService.getAll(), ifNoneMatch);
+    }
+
+    @Override
+    public ResponseEntity<ProductPage> retrievePage(int limit, String cursor) {
+        return ResponseEntity.ok().body(productService.getPage(limit, cursor));
+    }
+
+    @Override
+    public ResponseEntity<ProductPage> retrieveByCategory(String category, Double minPrice, Double maxPrice,
+            Sort.Direction order, int limit, String cursor) {
+        CategoryQuery query = new CategoryQuery(category, minPrice, maxPrice, order.isAscending());
+        return ResponseEntity.ok().body(productService.getPageByCategory(query, limit, cursor));
+    }
+
+    @Override
+    public ResponseEntity<ResponseBodyEmitter> export() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(productExporter.export());
+    }
 
-    @GetMapping
-    @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    public ResponseEntity<List<Product>> retrieveAll() {
-        return ResponseEntity.ok().body(productService.getAll());
+    @Override
+    public ResponseEntity<ProductBatchGetResult> retrieveByIds(List<String> ids) {
+        return ResponseEntity.ok().body(productService.getByIds(ids));
     }
 
-    @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    public ResponseEntity<Product> retrieve(@PathVariable String id) {
-        return ResponseEntity.ok().body(productService.getById(id));
+    @Override
+    public ResponseEntity<Product> retrieve(String id, String ifNoneMatch) {
+        return ProductETags.response(productService.getById(id), ifNoneMatch);
     }
 
-    @PostMapping
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<HttpStatus> create(@Valid @RequestBody Product product) {
+    @Override
+    public ResponseEntity<HttpStatus> create(Product product, UriComponentsBuilder baseUri) {
         product = productService.create(product);
-        URI location = ServletUriComponentsBuilder
-                .fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(product.getId()).toUri();
-        return ResponseEntity.created(location).build();
+        return ResponseEntity.created(ProductApi.location(baseUri, product.getId())).build();
     }
 
-    @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Product> update(@PathVariable String id, @Valid @RequestBody Product product) {
+    @Override
+    public ResponseEntity<BatchCreateResult> createAll(List<Product> products) {
+        BatchCreateResult result = productService.createAll(products);
+        return ResponseEntity.status(result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(result);
+    }
+
+    @Override
+    public ResponseEntity<Product> update(String id, String ifMatch, Product product) {
         product.setId(id);
-        return ResponseEntity.status(HttpStatus.OK).body(productService.update(product));
+        return ProductETags.response(productService.update(product, ProductETags.versions(ifMatch)), null);
+    }
+
+    @Override
+    public ResponseEntity<Product> patch(String id, String ifMatch, Map<String, Object> patch) {
+        return ProductETags.response(productService.patch(id, patch, ProductETags.versions(ifMatch)), null);
     }
 
-    @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<HttpStatus> delete(@PathVariable String id) {
+    @Override
+    public ResponseEntity<HttpStatus> delete(String id) {
         productService.delete(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
     @Autowired
-    public ProductController(final ProductService productService) {
+    public ProductController(final ProductService productService, final ProductExporter productExporter) {
         this.productService = productService;
+        this.productExporter = productExporter;
     }
 }
@@ -0,0 +1,116 @@
+package com.mvs.dynamodb.web.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.web.exception.ProductVersionMismatchException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Entity tags of products. A product's tag is its version, so it is known without serializing the product. A list
+ * is tagged with a hash of the ids and versions it contains, and of the content of products without a version.
+ */
+final class ProductETags {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final Splitter TAG_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private ProductETags() {
+    }
+
+    // null when the product has no version yet
+    static String of(Product product) {
+        return product.getVersion() == null ? null : of(product.getVersion());
+    }
+
+    static String of(long version) {
+        return quote(Long.toString(version));
+    }
+
+    static String of(Collection<Product> products) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Product product : products) {
+            hasher.putString(String.valueOf(product.getId()), StandardCharsets.UTF_8).putChar('\0');
+            if (product.getVersion() != null) {
+                hasher.putLong(product.getVersion());
+            } else {
+                hasher.putString(String.valueOf(product.getName()), StandardCharsets.UTF_8).putChar('\0')
+                        .putString(String.valueOf(product.getCategory()), StandardCharsets.UTF_8).putChar('\0')
+                        .putString(String.valueOf(product.getPrice()), StandardCharsets.UTF_8);
+            }
+            hasher.putChar('\n');
+        }
+        return quote(hasher.hash().toString());
+    }
+
+    // 304 without a body when the client already has this version, the body is then never serialized
+    static ResponseEntity<Product> response(Product product, String ifNoneMatch) {
+        return response(of(product), ifNoneMatch, product);
+    }
+
+    static ResponseEntity<List<Product>> response(List<Product> products, String ifNoneMatch) {
+        return response(of(products), ifNoneMatch, products);
+    }
+
+    // If-None-Match uses the weak comparison, so W/"3" matches "3"
+    static boolean noneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return true;
+        }
+        for (String tag : TAG_SPLITTER.split(ifNoneMatch)) {
+            String opaqueTag = tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+            if (ANY.equals(tag) || etag.equals(opaqueTag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the versions an If-Match list accepts, empty for a missing header or *, which only require the product.
+    // If-Match uses the strong comparison, so weak tags and tags that are not versions never match
+    static Set<Long> versions(String ifMatch) {
+        if (ifMatch == null) {
+            return Set.of();
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String tag : TAG_SPLITTER.split(ifMatch)) {
+            if (ANY.equals(tag)) {
+                return Set.of();
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.valueOf(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // not one of our tags, it cannot match the stored version
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new ProductVersionMismatchException("If-Match " + ifMatch + " does not list a product version");
+        }
+        return versions;
+    }
+
+    private static <T> ResponseEntity<T> response(String etag, String ifNoneMatch, T body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body);
+        }
+        if (!noneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
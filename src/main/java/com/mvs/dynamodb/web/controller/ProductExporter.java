@@ -0,0 +1,94 @@
+package com.mvs.dynamodb.web.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mvs.dynamodb.config.BoundedExecutorFactory;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.service.ProductService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the whole catalog as newline-delimited JSON while the table is being scanned. Exports run on their own
+ * small pool and each one has its own timeout, product.export.timeout, so a long export neither holds a request
+ * thread nor raises the async timeout of the other endpoints. Products are sent in chunks instead of flushing the
+ * response once per product. When the pool and its queue are full the export fails with
+ * RejectedExecutionException, which is answered with 503.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductExporter {
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private final ProductService productService;
+    private final ObjectWriter productWriter;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ProductExporter(final ProductService productService, final ObjectMapper objectMapper,
+            final BoundedExecutorFactory executorFactory,
+            @Value("${product.export.max-threads:4}") int maxThreads,
+            @Value("${product.export.max-queued-exports:8}") int maxQueuedExports,
+            @Value("${product.export.timeout:15m}") Duration timeout) {
+        this.productService = productService;
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.executor = executorFactory.newExecutor("product-export", maxThreads, maxQueuedExports);
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public ResponseBodyEmitter export() {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        executor.execute(() -> write(emitter));
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void write(ResponseBodyEmitter emitter) {
+        try (Stream<Product> products = productService.streamAll()) {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_BYTES);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                chunk.write(productWriter.writeValueAsBytes(iterator.next()));
+                chunk.write('\n');
+                if (chunk.size() >= CHUNK_BYTES) {
+                    emitter.send(chunk.toByteArray(), MediaType.APPLICATION_NDJSON);
+                    chunk.reset();
+                }
+            }
+            if (chunk.size() > 0) {
+                emitter.send(chunk.toByteArray(), MediaType.APPLICATION_NDJSON);
+            }
+            emitter.complete();
+        } catch (JsonProcessingException e) {
+            emitter.completeWithError(e);
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the export timed out, closing the stream stops the scan
+            log.warn("Product export stopped: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
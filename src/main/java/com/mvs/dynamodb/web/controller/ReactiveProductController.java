@@ -0,0 +1,98 @@
+package com.mvs.dynamodb.web.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.CategoryQuery;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
+import com.mvs.dynamodb.service.ReactiveProductService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// the API of ProductApi, served by WebFlux when spring.main.web-application-type=reactive
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController implements ProductApi<Mono<? extends ResponseEntity<?>>, Flux<Product>> {
+    private final ReactiveProductService productService;
+
+    @Override
+    public Mono<ResponseEntity<List<Product>>> retrieveAll(String ifNoneMatch) {
+        return productService.getAll().map(products -> ProductETags.response(products, ifNoneMatch));
+    }
+
+    @Override
+    public Mono<ResponseEntity<ProductPage>> retrievePage(int limit, String cursor) {
+        return productService.getPage(limit, cursor).map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ProductPage>> retrieveByCategory(String category, Double minPrice, Double maxPrice,
+            Sort.Direction order, int limit, String cursor) {
+        CategoryQuery query = new CategoryQuery(category, minPrice, maxPrice, order.isAscending());
+        return productService.getPageByCategory(query, limit, cursor).map(ResponseEntity::ok);
+    }
+
+    // streamed with backpressure while the table is being scanned
+    @Override
+    public Flux<Product> export() {
+        return productService.streamAll();
+    }
+
+    @Override
+    public Mono<ResponseEntity<ProductBatchGetResult>> retrieveByIds(List<String> ids) {
+        return productService.getByIds(ids).map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Product>> retrieve(String id, String ifNoneMatch) {
+        return productService.getById(id).map(product -> ProductETags.response(product, ifNoneMatch));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> create(Product product, UriComponentsBuilder baseUri) {
+        return productService.create(product)
+                .map(created -> ResponseEntity.created(ProductApi.location(baseUri, created.getId())).build());
+    }
+
+    @Override
+    public Mono<ResponseEntity<BatchCreateResult>> createAll(List<Product> products) {
+        return productService.createAll(products).map(result -> ResponseEntity
+                .status(result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(result));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Product>> update(String id, String ifMatch, Product product) {
+        product.setId(id);
+        return productService.update(product, ProductETags.versions(ifMatch))
+                .map(updated -> ProductETags.response(updated, null));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Product>> patch(String id, String ifMatch, Map<String, Object> patch) {
+        return productService.patch(id, patch, ProductETags.versions(ifMatch))
+                .map(patched -> ProductETags.response(patched, null));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> delete(String id) {
+        return productService.delete(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @Autowired
+    public ReactiveProductController(final ReactiveProductService productService) {
+        this.productService = productService;
+    }
+}
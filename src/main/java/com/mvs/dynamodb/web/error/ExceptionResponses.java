@@ -0,0 +1,98 @@
+package com.mvs.dynamodb.web.error;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import com.mvs.dynamodb.web.exception.BatchSizeExceededException;
+import com.mvs.dynamodb.web.exception.InvalidCursorException;
+import com.mvs.dynamodb.web.exception.InvalidPatchException;
+import com.mvs.dynamodb.web.exception.InvalidPriceRangeException;
+import com.mvs.dynamodb.web.exception.ProductConflictException;
+import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+import com.mvs.dynamodb.web.exception.ProductVersionMismatchException;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Status and body of the error responses, shared by the servlet and the reactive exception handlers so both web
+ * stacks answer every exception the same way. Only the way the request is described differs between them.
+ */
+@Slf4j
+final class ExceptionResponses {
+
+    private ExceptionResponses() {
+    }
+
+    static ResponseEntity<Object> of(Exception ex, String details) {
+        if (ex instanceof ProductNotFoundException || ex instanceof EmptyResultDataAccessException) {
+            return of(HttpStatus.NOT_FOUND, "Not found", details, ex);
+        }
+        // the product changed since the client read the versions it sent in If-Match. The message names them and is
+        // only logged, the body does not echo the request
+        if (ex instanceof ProductVersionMismatchException) {
+            return of(HttpStatus.PRECONDITION_FAILED, "Product does not match If-Match", details, ex);
+        }
+        // concurrent writes kept replacing the product while a create of its id tried to replace it
+        if (ex instanceof ProductConflictException) {
+            return of(HttpStatus.CONFLICT, ex.getMessage(), details, ex);
+        }
+        // exception messages can quote the request, like the raw cursor, and are only logged
+        if (ex instanceof InvalidCursorException) {
+            return of(HttpStatus.BAD_REQUEST, "Invalid cursor", details, ex);
+        }
+        if (ex instanceof BatchSizeExceededException) {
+            return of(HttpStatus.BAD_REQUEST, "Too many items in batch", details, ex);
+        }
+        if (ex instanceof InvalidPriceRangeException) {
+            return of(HttpStatus.BAD_REQUEST, "Minimum price is greater than maximum price", details, ex);
+        }
+        // the constraint messages of the patch, which do not quote it
+        if (ex instanceof InvalidPatchException invalidPatch) {
+            return of(HttpStatus.BAD_REQUEST, invalidPatch.getViolations(), details, ex);
+        }
+        // the I/O or password verification pool and its queue are full, the client can retry once the burst has
+        // drained
+        if (ex instanceof RejectedExecutionException) {
+            return of(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please try later.", details, ex);
+        }
+        if (ex instanceof AuthenticationException) {
+            return of(HttpStatus.UNAUTHORIZED, "Unauthorized", details, ex);
+        }
+        if (ex instanceof AccessDeniedException) {
+            return of(HttpStatus.FORBIDDEN, "Insufficient privileges, please contact admin.", details, ex);
+        }
+        return of(HttpStatus.INTERNAL_SERVER_ERROR, "Please try later.", details, ex);
+    }
+
+    // the constraint messages only, the rejected values are logged with the exception
+    static ResponseEntity<Object> validationFailed(BindingResult bindingResult, Exception ex) {
+        String violations = bindingResult.getAllErrors().stream()
+                .map(ObjectError::getDefaultMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return of(HttpStatus.BAD_REQUEST, "Validation Failed", violations, ex);
+    }
+
+    static ResponseEntity<Object> of(HttpStatus status, String message, String details, Exception ex) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(Date.from(Instant.now()), message, details);
+        // stale versions, conflicting writes and a saturated server are expected under load, they are not errors of
+        // the service
+        if (status == HttpStatus.PRECONDITION_FAILED || status == HttpStatus.CONFLICT
+                || status == HttpStatus.SERVICE_UNAVAILABLE) {
+            log.warn("ExceptionResponse: {}", exceptionResponse, ex);
+        } else {
+            log.error("ExceptionResponse: {}", exceptionResponse, ex);
+        }
+        return ResponseEntity.status(status).body(exceptionResponse);
+    }
+}
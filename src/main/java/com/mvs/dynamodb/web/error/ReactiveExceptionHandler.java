@@ -0,0 +1,35 @@
+package com.mvs.dynamodb.web.error;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+// WebFlux counterpart of RestResponseEntityExceptionHandler, the responses have the same shape in both modes
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(Exception.class)
+    public final ResponseEntity<Object> handleAllExceptions(Exception ex, ServerHttpRequest request) {
+        return ExceptionResponses.of(ex, details(request));
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public final ResponseEntity<Object> handleBindException(WebExchangeBindException ex, ServerHttpRequest request) {
+        return ExceptionResponses.validationFailed(ex.getBindingResult(), ex);
+    }
+
+    // malformed parameters and bodies keep the status WebFlux assigned to them
+    @ExceptionHandler(ResponseStatusException.class)
+    public final ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex, ServerHttpRequest request) {
+        return ExceptionResponses.of(ex.getStatus(), ex.getReason(), details(request), ex);
+    }
+
+    private static String details(ServerHttpRequest request) {
+        return "uri=" + request.getPath().value();
+    }
+}
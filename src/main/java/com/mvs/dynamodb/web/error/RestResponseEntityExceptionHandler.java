@@ -1,54 +1,28 @@
 package com.mvs.dynamodb.web.error;
 
-import java.time.Instant;
-import java.util.Date;
-
-import com.mvs.dynamodb.web.exception.ProductNotFoundException;
-
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import lombok.extern.slf4j.Slf4j;
-
-@Slf4j
+// the exceptions are mapped by ExceptionResponses, Spring MVC's own exceptions keep the status it assigns to them
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(Date.from(Instant.now()), "Please try later.", request.getDescription(false));
-        log.error("ExceptionResponse: {}", exceptionResponse, ex);
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(exceptionResponse);
-    }
-
-    @ExceptionHandler({EmptyResultDataAccessException.class, ProductNotFoundException.class})
-    public final ResponseEntity<Object> handleUserNotFoundException(Exception ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(Date.from(Instant.now()), "Not found", request.getDescription(false));
-        log.error("ExceptionResponse: {}", exceptionResponse, ex);
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponse);
+        return ExceptionResponses.of(ex, request.getDescription(false));
     }
 
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(Date.from(Instant.now()), "Validation Failed", ex.getBindingResult().toString());
-        log.error("ExceptionResponse: {}", exceptionResponse, ex);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionResponse);
-    }
-
-
-    @ExceptionHandler(AccessDeniedException.class)
-    public final ResponseEntity<Object> handleAccessDeniedException(AccessDeniedException ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), "Insufficient privileges, please contact admin.", request.getDescription(false));
-        log.error("ExceptionResponse: {}", exceptionResponse, ex);
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(exceptionResponse);
+        return ExceptionResponses.validationFailed(ex.getBindingResult(), ex);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.mvs.dynamodb.web.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// the violations are sent to the client and never quote the patch, the message may quote it and is only logged
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String violations;
+
+    public InvalidPatchException(String violations) {
+        this(violations, violations);
+    }
+
+    public InvalidPatchException(String violations, String message) {
+        super(message);
+        this.violations = violations;
+    }
+
+    public String getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,14 @@
+package com.mvs.dynamodb.web.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPriceRangeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPriceRangeException(String message) {
+        super(message);
+    }
+}
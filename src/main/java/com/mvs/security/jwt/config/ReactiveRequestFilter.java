@@ -0,0 +1,45 @@
+package com.mvs.security.jwt.config;
+
+import com.google.common.base.Strings;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of RequestFilter. It is deliberately not a bean: WebFlux adds every WebFilter bean to the
+ * global chain, and this one must only run inside the security chain.
+ */
+public class ReactiveRequestFilter implements WebFilter {
+    private static final String BEARER_TOKEN_PREFIX = "Bearer ";
+
+    private final TokenUtil tokenUtil;
+
+    public ReactiveRequestFilter(final TokenUtil tokenUtil) {
+        this.tokenUtil = tokenUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String requestTokenHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (!Strings.nullToEmpty(requestTokenHeader).startsWith(BEARER_TOKEN_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        final String jwtToken = requestTokenHeader.substring(BEARER_TOKEN_PREFIX.length());
+        // the security context travels with the subscriber context instead of a thread local
+        return tokenUtil.verify(jwtToken)
+                .map(verifiedToken -> new UsernamePasswordAuthenticationToken(verifiedToken.username(), null,
+                        verifiedToken.authorities()))
+                .map(authentication -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)))
+                .orElseGet(() -> chain.filter(exchange));
+    }
+}
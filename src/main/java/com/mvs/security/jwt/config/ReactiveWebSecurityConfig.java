@@ -0,0 +1,85 @@
+package com.mvs.security.jwt.config;
+
+import com.mvs.security.jwt.service.PasswordVerificationExecutor;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// WebFlux counterpart of WebSecurityConfig, active when spring.main.web-application-type=reactive
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveWebSecurityConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // only used by /authenticate, requests carrying a token are authenticated from its claims.
+    // The user store is an in-memory map of pre-hashed users, so lookups can run on the event loop
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(UserDetailsService userDetailsService) {
+        return username -> Mono.fromCallable(() -> userDetailsService.loadUserByUsername(username))
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+
+    // the pool is owned and shut down by PasswordVerificationExecutor
+    @Bean(destroyMethod = "")
+    public Scheduler passwordVerificationScheduler(PasswordVerificationExecutor passwordVerificationExecutor) {
+        return Schedulers.fromExecutor(passwordVerificationExecutor);
+    }
+
+    // password hashes are checked on the bounded verification pool, a saturated pool is answered with 503
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(
+            ReactiveUserDetailsService reactiveUserDetailsService, PasswordEncoder passwordEncoder,
+            Scheduler passwordVerificationScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(passwordVerificationScheduler);
+        return authenticationManager;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenUtil tokenUtil) {
+        return http.csrf().disable()
+                .httpBasic().disable()
+                .formLogin().disable()
+                // stateless, the token is checked on every request
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange()
+                .pathMatchers("/authenticate", "/authenticate/refresh", "/swagger*/**", "/v*/api-docs/**").permitAll()
+                .pathMatchers("/actuator/**").hasRole("ADMIN")
+                .anyExchange().authenticated()
+                .and()
+                .exceptionHandling().authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+                .and()
+                .addFilterAt(new ReactiveRequestFilter(tokenUtil),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
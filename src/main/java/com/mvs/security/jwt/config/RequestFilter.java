@@ -11,28 +11,22 @@ import com.google.common.base.Strings;
 import com.mvs.security.jwt.util.TokenUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import io.jsonwebtoken.ExpiredJwtException;
-import lombok.extern.slf4j.Slf4j;
-
-@Slf4j
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RequestFilter extends OncePerRequestFilter {
     private static final String BEARER_TOKEN_PREFIX = "Bearer ";
 
-    private final UserDetailsService userDetailsService;
     private final TokenUtil tokenUtil;
 
     @Autowired
-    public RequestFilter(final UserDetailsService jwtUserDetailsService, final TokenUtil tokenUtil) {
-        this.userDetailsService = jwtUserDetailsService;
+    public RequestFilter(final TokenUtil tokenUtil) {
         this.tokenUtil = tokenUtil;
     }
 
@@ -42,38 +36,21 @@ public class RequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
-        if (Strings.nullToEmpty(requestTokenHeader).startsWith(BEARER_TOKEN_PREFIX)) {
-            jwtToken = requestTokenHeader.substring(BEARER_TOKEN_PREFIX.length());
-            try {
-                username = tokenUtil.getUsernameFromToken(jwtToken);
-            } catch (IllegalArgumentException e) {
-                log.error("Unable to get JWT Token", e);
-            } catch (ExpiredJwtException e) {
-                log.error("JWT Token has expired", e);
-            }
-        }
-
         // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            // if token is valid configure Spring Security to manually set
-            // authentication
-            if (tokenUtil.validateToken(jwtToken, userDetails)) {
-
+        if (Strings.nullToEmpty(requestTokenHeader).startsWith(BEARER_TOKEN_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwtToken = requestTokenHeader.substring(BEARER_TOKEN_PREFIX.length());
+            tokenUtil.verify(jwtToken).ifPresent(verifiedToken -> {
+                // the token is valid and carries the roles, configure Spring Security to manually set authentication
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        verifiedToken.username(), null, verifiedToken.authorities());
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 // After setting the Authentication in the context, we specify
                 // that the current user is authenticated. So it passes the
                 // Spring Security Configurations successfully.
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-            }
+            });
         }
         chain.doFilter(request, response);
     }
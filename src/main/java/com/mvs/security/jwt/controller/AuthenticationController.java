@@ -1,55 +1,84 @@
 package com.mvs.security.jwt.controller;
 
+import java.util.concurrent.CompletableFuture;
+
+import com.mvs.security.jwt.model.RefreshRequest;
 import com.mvs.security.jwt.model.Request;
 import com.mvs.security.jwt.model.Response;
+import com.mvs.security.jwt.service.PasswordVerificationExecutor;
 import com.mvs.security.jwt.util.TokenUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @CrossOrigin
 public class AuthenticationController {
 
     private final TokenUtil tokenUtil;
     private final UserDetailsService userDetailsService;
     private final AuthenticationManager authenticationManager;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
 
     @Autowired
     public AuthenticationController(final AuthenticationManager authenticationManager, final TokenUtil tokenUtil,
-            final UserDetailsService userDetailsService) {
+            final UserDetailsService userDetailsService,
+            final PasswordVerificationExecutor passwordVerificationExecutor) {
         this.authenticationManager = authenticationManager;
         this.tokenUtil = tokenUtil;
         this.userDetailsService = userDetailsService;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
     }
 
+    // the password check runs on the bounded verification pool, the request thread is released meanwhile
     @PostMapping("/authenticate")
-    public ResponseEntity<Object> createAuthenticationToken(@RequestBody Request authenticationRequest)
-            throws Exception {
-        authenticate(authenticationRequest.username(), authenticationRequest.password());
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.username());
-        final Response response = tokenUtil.generateToken(userDetails);
-        return ResponseEntity.ok().body(response);
+    public CompletableFuture<ResponseEntity<Response>> createAuthenticationToken(
+            @RequestBody Request authenticationRequest) {
+        return passwordVerificationExecutor
+                .supply(() -> authenticate(authenticationRequest.username(), authenticationRequest.password()))
+                .thenApply(authentication -> ResponseEntity.ok()
+                        .body(tokenUtil.generateToken((UserDetails) authentication.getPrincipal())));
+    }
+
+    // issues new tokens without a password check, the user is reloaded so role changes are picked up
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<Response> refreshAuthenticationToken(@RequestBody RefreshRequest refreshRequest) {
+        final String username = tokenUtil.redeemRefreshToken(refreshRequest.refreshToken())
+                .orElseThrow(() -> new BadCredentialsException("INVALID_REFRESH_TOKEN"));
+        final UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("INVALID_REFRESH_TOKEN", e);
+        }
+        if (!userDetails.isEnabled()) {
+            throw new DisabledException("USER_DISABLED");
+        }
+        return ResponseEntity.ok().body(tokenUtil.generateToken(userDetails));
     }
 
-    private void authenticate(String username, String password) throws AuthenticationException {
+    private Authentication authenticate(String username, String password) throws AuthenticationException {
         try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+            return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
         } catch (DisabledException e) {
             throw new DisabledException("USER_DISABLED", e);
         } catch (BadCredentialsException e) {
             throw new BadCredentialsException("INVALID_CREDENTIALS", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.mvs.security.jwt.controller;
+
+import com.mvs.security.jwt.model.RefreshRequest;
+import com.mvs.security.jwt.model.Request;
+import com.mvs.security.jwt.model.Response;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthenticationController {
+
+    private final TokenUtil tokenUtil;
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final ReactiveUserDetailsService userDetailsService;
+
+    @Autowired
+    public ReactiveAuthenticationController(final ReactiveAuthenticationManager authenticationManager,
+            final TokenUtil tokenUtil, final ReactiveUserDetailsService userDetailsService) {
+        this.authenticationManager = authenticationManager;
+        this.tokenUtil = tokenUtil;
+        this.userDetailsService = userDetailsService;
+    }
+
+    // invalid credentials end the Mono with a BadCredentialsException, which is answered with 401
+    @PostMapping("/authenticate")
+    public Mono<ResponseEntity<Response>> createAuthenticationToken(@RequestBody Request authenticationRequest) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                authenticationRequest.username(), authenticationRequest.password()))
+                .map(authentication -> ResponseEntity.ok()
+                        .body(tokenUtil.generateToken((UserDetails) authentication.getPrincipal())));
+    }
+
+    // issues new tokens without a password check, the user is reloaded so role changes are picked up
+    @PostMapping("/authenticate/refresh")
+    public Mono<ResponseEntity<Response>> refreshAuthenticationToken(@RequestBody RefreshRequest refreshRequest) {
+        return Mono.justOrEmpty(tokenUtil.redeemRefreshToken(refreshRequest.refreshToken()))
+                .flatMap(userDetailsService::findByUsername)
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("INVALID_REFRESH_TOKEN")))
+                .flatMap(userDetails -> userDetails.isEnabled()
+                        ? Mono.just(ResponseEntity.ok().body(tokenUtil.generateToken(userDetails)))
+                        : Mono.<ResponseEntity<Response>>error(new DisabledException("USER_DISABLED")));
+    }
+}
@@ -0,0 +1,9 @@
+package com.mvs.security.jwt.model;
+
+import java.io.Serializable;
+
+public record RefreshRequest(String refreshToken) implements Serializable {
+
+    private static final long serialVersionUID = -1L;
+
+}
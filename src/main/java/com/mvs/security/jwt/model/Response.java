@@ -2,8 +2,9 @@ package com.mvs.security.jwt.model;
 
 import java.io.Serializable;
 
-public record Response(String token, String expiresIn) implements Serializable {
+public record Response(String token, String expiresIn, String refreshToken, String refreshExpiresIn)
+        implements Serializable {
 
     private static final long serialVersionUID = -1L;
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.mvs.security.jwt.model;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+// the claims of a token whose signature, expiration and version have been checked
+public record VerifiedToken(String username, List<GrantedAuthority> authorities, Date expiration) {
+}
@@ -1,31 +1,46 @@
 package com.mvs.security.jwt.service;
 
-import java.util.Arrays;
+import java.util.Map;
 
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+/**
+ * In-memory user store holding BCrypt hashes, so looking a user up never hashes a password. Only /authenticate
+ * pays for a BCrypt comparison, the JWT filter gets its users from here at the cost of a map lookup.
+ */
 @Service
 public class JWTUserDetailsService implements UserDetailsService {
+    // BCrypt hashes of the demo password "pwd", override them with jwt.users.*.password-hash
+    private static final String DEFAULT_USER_PASSWORD_HASH =
+            "$2a$10$GDq/21yMU1FtuWOvOJAGUutYFByJTnC5.tCCcXRPuvmZZL3XG36nS";
+    private static final String DEFAULT_ADMIN_PASSWORD_HASH =
+            "$2a$10$I6.j.iEoGmJEt5YPQ3sf8ObsPxZoae3OWpFczwoDVo1v/lm3AMUo.";
 
-    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final Map<String, UserDetails> users;
+
+    @Autowired
+    public JWTUserDetailsService(
+            @Value("${jwt.users.user.password-hash:" + DEFAULT_USER_PASSWORD_HASH + "}") String userPasswordHash,
+            @Value("${jwt.users.admin.password-hash:" + DEFAULT_ADMIN_PASSWORD_HASH + "}") String adminPasswordHash) {
+        this.users = Map.of(
+                "user", User.withUsername("user").password(userPasswordHash).roles("USER").build(),
+                "admin", User.withUsername("admin").password(adminPasswordHash).roles("ADMIN").build());
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        if ("user".equals(username)) {
-            return new User(username, passwordEncoder.encode("pwd"),
-                    Arrays.asList(new SimpleGrantedAuthority("ROLE_USER")));
-        } else if ("admin".equals(username)) {
-            return new User(username, passwordEncoder.encode("pwd"),
-                    Arrays.asList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        UserDetails userDetails = users.get(username);
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
         }
-        throw new UsernameNotFoundException("User not found with username: " + username);
+        // authentication erases the credentials of the returned instance, the stored one must stay intact
+        return User.withUserDetails(userDetails).build();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.mvs.security.jwt.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import com.mvs.dynamodb.config.BoundedExecutorFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pool that runs the BCrypt password checks of /authenticate. BCrypt is slow by design, so a burst of
+ * logins is queued here and rejected with 503 once the queue is full, instead of holding every request thread.
+ */
+@Component
+public class PasswordVerificationExecutor implements Executor {
+    private final ExecutorService executor;
+
+    @Autowired
+    public PasswordVerificationExecutor(final BoundedExecutorFactory executorFactory,
+            @Value("${jwt.login.max-threads:4}") int maxThreads,
+            @Value("${jwt.login.max-queued-requests:64}") int maxQueuedRequests) {
+        this.executor = executorFactory.newExecutor("password-verification", maxThreads, maxQueuedRequests);
+    }
+
+    // a saturated pool fails the future with RejectedExecutionException, which is answered with 503
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
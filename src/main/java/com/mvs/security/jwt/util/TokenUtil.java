@@ -1,68 +1,183 @@
 package com.mvs.security.jwt.util;
 
-import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.crypto.spec.SecretKeySpec;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.mvs.security.jwt.model.Response;
+import com.mvs.security.jwt.model.VerifiedToken;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
-public class TokenUtil implements Serializable {
+public class TokenUtil {
 
     public static final long VALIDITY_MS = Duration.ofHours(24).toMillis();
-    private static final long serialVersionUID = 1L;
-
-    @Value("${jwt.secret}")
-    private String secret;
-
-    // retrieve username from jwt token
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    public static final long REFRESH_VALIDITY_MS = Duration.ofDays(30).toMillis();
+    public static final String ROLES_CLAIM = "roles";
+    public static final String VERSION_CLAIM = "ver";
+    public static final String TYPE_CLAIM = "typ";
+    public static final String ACCESS_TYPE = "access";
+    public static final String REFRESH_TYPE = "refresh";
+
+    // the key and the parser are immutable and thread safe, so they are built once
+    private final Key key;
+    private final JwtParser parser;
+    // tokens that passed verification, keyed by their SHA-256 digest and evicted when they expire
+    private final Cache<HashCode, VerifiedToken> verifiedTokens;
+    // ids of refresh tokens that were already exchanged with their expiration, evicted once the token has expired
+    private final Cache<String, Date> usedRefreshTokens;
+    // tokens issued with another version are rejected, bumping it invalidates every issued token
+    private final int tokenVersion;
+
+    @Autowired
+    public TokenUtil(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize,
+            @Value("${jwt.used-refresh-tokens.maximum-size:100000}") long usedRefreshTokensSize,
+            @Value("${jwt.token-version:1}") int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+        byte[] secretBytes = secret.getBytes();
+        this.key = new SecretKeySpec(secretBytes, 0, secretBytes.length, "HmacSHA512");
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpires<HashCode, VerifiedToken>(VerifiedToken::expiration))
+                .build();
+        // a used id evicted for size before its token expires could be exchanged once more
+        this.usedRefreshTokens = Caffeine.newBuilder()
+                .maximumSize(usedRefreshTokensSize)
+                .expireAfter(new UntilTokenExpires<String, Date>(expiration -> expiration))
+                .build();
     }
 
-    // retrieve expiration date from jwt token
-    public Date expiration(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    // checks signature, expiration, version and type once per token, later requests with the same token only hash it.
+    // The authorities come from the token itself, so no user lookup is needed to authenticate a request.
+    public Optional<VerifiedToken> verify(String token) {
+        if (Strings.isNullOrEmpty(token)) {
+            return Optional.empty();
+        }
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(digest);
+        if (verifiedToken != null) {
+            return Optional.of(verifiedToken);
+        }
+        Optional<Claims> claims = parse(token, ACCESS_TYPE);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!(claims.get().get(ROLES_CLAIM) instanceof List<?> roles)) {
+            log.error("JWT Token has no roles");
+            return Optional.empty();
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(String::valueOf)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+        verifiedToken = new VerifiedToken(claims.get().getSubject(), authorities, claims.get().getExpiration());
+        verifiedTokens.put(digest, verifiedToken);
+        return Optional.of(verifiedToken);
     }
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        return claimsResolver.apply(claimsFromToken(token));
+    // refresh tokens are only presented to /authenticate/refresh and are rotated: each one can be exchanged once,
+    // the response carries its successor. Returns the username the new tokens are issued for.
+    public Optional<String> redeemRefreshToken(String token) {
+        if (Strings.isNullOrEmpty(token)) {
+            return Optional.empty();
+        }
+        Optional<Claims> claims = parse(token, REFRESH_TYPE);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        String id = claims.get().getId();
+        if (Strings.isNullOrEmpty(id)) {
+            log.error("JWT refresh token has no id");
+            return Optional.empty();
+        }
+        if (usedRefreshTokens.asMap().putIfAbsent(id, claims.get().getExpiration()) != null) {
+            log.error("JWT refresh token {} of {} was already used", id, claims.get().getSubject());
+            return Optional.empty();
+        }
+        return Optional.of(claims.get().getSubject());
     }
 
-    // for retrieving any information from token we will need the secret key
-    private Claims claimsFromToken(String token) {
-        Key key = new SecretKeySpec(secret.getBytes(), 0, secret.getBytes().length, "HmacSHA512");
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+    // generate an access token carrying the granted roles and a refresh token for user, both embed the token version
+    public Response generateToken(UserDetails userDetails) {
+        Map<String, Object> claims = Maps.newHashMap();
+        claims.put(TYPE_CLAIM, ACCESS_TYPE);
+        claims.put(ROLES_CLAIM, AuthorityUtils.authorityListToSet(userDetails.getAuthorities()));
+        claims.put(VERSION_CLAIM, tokenVersion);
+        Date expiresIn = Date.from(Instant.now().plusMillis(VALIDITY_MS));
+        String token = doGenerateToken(claims, userDetails.getUsername(), expiresIn);
+
+        Map<String, Object> refreshClaims = Maps.newHashMap();
+        refreshClaims.put(TYPE_CLAIM, REFRESH_TYPE);
+        refreshClaims.put(VERSION_CLAIM, tokenVersion);
+        refreshClaims.put(Claims.ID, UUID.randomUUID().toString());
+        Date refreshExpiresIn = Date.from(Instant.now().plusMillis(REFRESH_VALIDITY_MS));
+        String refreshToken = doGenerateToken(refreshClaims, userDetails.getUsername(), refreshExpiresIn);
 
-    // check if the token has expired
-    private boolean isTokenExpired(String token) {
-        return Date.from(Instant.now()).after(expiration(token));
+        return new Response(token, expiresIn.toString(), refreshToken, refreshExpiresIn.toString());
     }
 
-    // generate token for user
-    public Response generateToken(UserDetails userDetails) {
-        return doGenerateToken(Maps.newHashMap(), userDetails.getUsername());
+    // checks signature, expiration, version and type of the token
+    private Optional<Claims> parse(String token, String type) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (Strings.isNullOrEmpty(claims.getSubject()) || claims.getExpiration() == null) {
+                log.error("JWT Token has no subject or expiration");
+                return Optional.empty();
+            }
+            if (!(claims.get(VERSION_CLAIM) instanceof Number version) || version.intValue() != tokenVersion) {
+                log.error("JWT Token version {} is not supported", claims.get(VERSION_CLAIM));
+                return Optional.empty();
+            }
+            if (!type.equals(claims.get(TYPE_CLAIM))) {
+                log.error("JWT Token of type {} is not accepted here", claims.get(TYPE_CLAIM));
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (ExpiredJwtException e) {
+            log.error("JWT Token has expired", e);
+            return Optional.empty();
+        } catch (IllegalArgumentException | JwtException e) {
+            log.error("Unable to get JWT Token", e);
+            return Optional.empty();
+        }
     }
 
     // while creating the token -
@@ -71,10 +186,8 @@ public class TokenUtil implements Serializable {
     // 3. According to JWS Compact
     // Serialization(https://tools.ietf.org/html/draft-ietf-jose-json-web-signature-41#section-3.1)
     // compaction of the JWT to a URL-safe string
-    private Response doGenerateToken(Map<String, Object> claims, String subject) {
-        Key key = new SecretKeySpec(secret.getBytes(), 0, secret.getBytes().length, "HmacSHA512");
-        Date expiresIn = Date.from(Instant.now().plusMillis(VALIDITY_MS));
-        String token = Jwts.builder()
+    private String doGenerateToken(Map<String, Object> claims, String subject, Date expiresIn) {
+        return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(Date.from(Instant.now()))
@@ -82,13 +195,30 @@ public class TokenUtil implements Serializable {
                 .signWith(key, SignatureAlgorithm.HS512)
                 .setIssuer("com.mvs")
                 .compact();
-        return new Response(token, expiresIn.toString());
     }
 
-    // validate token
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return Strings.nullToEmpty(username).equals(userDetails.getUsername())
-                && !isTokenExpired(token);
+    // keeps an entry until the token it was created for expires
+    private static final class UntilTokenExpires<K, V> implements Expiry<K, V> {
+        private final Function<V, Date> expiration;
+
+        private UntilTokenExpires(Function<V, Date> expiration) {
+            this.expiration = expiration;
+        }
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            long remainingMs = expiration.apply(value).getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.mvs.dynamodb.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.mvs.dynamodb.config.BoundedExecutorFactory;
+import com.mvs.dynamodb.config.VirtualThreads;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the platform-thread pools with the virtual-thread mode for blocking DynamoDB style calls. Each
+ * operation submits a burst of tasks that each sleep for a simulated round trip, the same pool sizes are used in
+ * both modes. Only the executors are measured: no request goes through Tomcat, WebFlux, security or the
+ * DynamoDB client, so the numbers compare scheduling overhead and not the request-handling configurations.
+ * ProductApiLoadTest measures those end to end. main() only runs the virtual-thread mode on a JDK that has it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    // concurrent requests per operation
+    @Param({ "64", "1024" })
+    public int requests;
+
+    // simulated DynamoDB round trip
+    @Param({ "10" })
+    public long latencyMs;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // sized like the product-io pool
+        executor = new BoundedExecutorFactory(virtualThreads).newExecutor("benchmark", 64, 4096);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void blockingRequests(Blackhole blackhole) throws InterruptedException, ExecutionException {
+        List<Future<Long>> futures = new ArrayList<>(requests);
+        for (int request = 0; request < requests; request++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(latencyMs);
+                return latencyMs;
+            }));
+        }
+        for (Future<Long> future : futures) {
+            blackhole.consume(future.get());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String[] modes = VirtualThreads.isSupported() ? new String[] { "false", "true" } : new String[] { "false" };
+        new Runner(new OptionsBuilder()
+                .include(ExecutorModeBenchmark.class.getSimpleName())
+                .param("virtualThreads", modes)
+                .build()).run();
+    }
+}
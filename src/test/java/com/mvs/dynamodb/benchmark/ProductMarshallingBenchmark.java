@@ -0,0 +1,83 @@
+package com.mvs.dynamodb.benchmark;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.mvs.dynamodb.model.Product;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * DynamoDBMapper conversion of a Product to and from its attribute map, the CPU work done for every item read or
+ * written. The client is only needed to build the mapper, no request is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductMarshallingBenchmark {
+
+    private AmazonDynamoDB amazonDynamoDB;
+    private DynamoDBMapperTableModel<Product> tableModel;
+    private Product product;
+    private Map<String, AttributeValue> item;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        amazonDynamoDB = AmazonDynamoDBClientBuilder.standard()
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("benchmark", "benchmark")))
+                .withRegion("eu-west-2")
+                .build();
+        tableModel = new DynamoDBMapper(amazonDynamoDB).getTableModel(Product.class);
+        product = Product.builder()
+                .id(UUID.randomUUID().toString())
+                .name("Iphone 13")
+                .category("Mobile Phone")
+                .price(1302.16)
+                .build();
+        item = tableModel.convert(product);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        amazonDynamoDB.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> marshall() {
+        return tableModel.convert(product);
+    }
+
+    @Benchmark
+    public Product unmarshall() {
+        return tableModel.unconvert(item);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductMarshallingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.mvs.dynamodb.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mvs.dynamodb.model.Product;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Jackson cost of product lists of the sizes the API returns, from a single page up to a large listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int products;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Product> productList;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<Product>>() {
+        });
+        reader = objectMapper.readerFor(new TypeReference<List<Product>>() {
+        });
+        productList = IntStream.range(0, products)
+                .mapToObj(i -> Product.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name("Product " + i)
+                        .category("Category " + i % 10)
+                        .price(i * 1.5)
+                        .build())
+                .collect(Collectors.toList());
+        json = writer.writeValueAsBytes(productList);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(productList);
+    }
+
+    @Benchmark
+    public List<Product> deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
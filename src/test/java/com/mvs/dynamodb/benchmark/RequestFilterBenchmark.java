@@ -0,0 +1,77 @@
+package com.mvs.dynamodb.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import com.mvs.security.jwt.config.RequestFilter;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * The JWT filter as it runs in front of every product request, with a chain that does nothing but consume the
+ * authentication. Each state instance holds its own request, so the benchmark can run with several threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestFilterBenchmark {
+    private static final String SECRET = "benchmark_secret_benchmark_secret_benchmark_secret_benchmark_0123";
+
+    private RequestFilter requestFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TokenUtil tokenUtil = new TokenUtil(SECRET, 10_000, 100_000, 1);
+        String token = tokenUtil.generateToken(
+                new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))).token();
+        requestFilter = new RequestFilter(tokenUtil);
+        request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void authenticatedRequest(Blackhole blackhole) throws ServletException, IOException {
+        FilterChain chain = (filteredRequest, filteredResponse) -> blackhole.consume(
+                SecurityContextHolder.getContext().getAuthentication());
+        try {
+            requestFilter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RequestFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
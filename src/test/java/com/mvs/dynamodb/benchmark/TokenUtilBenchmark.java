@@ -0,0 +1,83 @@
+package com.mvs.dynamodb.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.mvs.security.jwt.model.Response;
+import com.mvs.security.jwt.model.VerifiedToken;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Cost of issuing and checking tokens. "verifyCached" is what the JWT filter pays for a token it has seen before,
+ * "verifyUncached" verifies with an empty verified-token cache, the same work as the first request with a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TokenUtilBenchmark {
+    private static final String SECRET = "benchmark_secret_benchmark_secret_benchmark_secret_benchmark_0123";
+
+    private TokenUtil tokenUtil;
+    private UserDetails user;
+    private Response tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenUtil = new TokenUtil(SECRET, 10_000, 100_000, 1);
+        user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        tokens = tokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Response generateToken() {
+        return tokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyCached() {
+        return tokenUtil.verify(tokens.token());
+    }
+
+    // the token is parsed and its signature checked, as the verified-token cache is new on every invocation.
+    // Tokens issued within the same second are identical, so a fresh token would not be enough
+    @Benchmark
+    public Optional<VerifiedToken> verifyUncached(UncachedTokenUtil uncached) {
+        return uncached.tokenUtil.verify(tokens.token());
+    }
+
+    @State(Scope.Thread)
+    public static class UncachedTokenUtil {
+        private TokenUtil tokenUtil;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            tokenUtil = new TokenUtil(SECRET, 10_000, 100_000, 1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
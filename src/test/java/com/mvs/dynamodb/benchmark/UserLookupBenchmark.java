@@ -0,0 +1,60 @@
+package com.mvs.dynamodb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mvs.security.jwt.service.JWTUserDetailsService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Throughput of the user lookup done by the JWT filter on every request. "bcryptPerRequest" is the former lookup,
+ * which hashed the password each time, "preHashedStore" is the current in-memory store of pre-hashed users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UserLookupBenchmark {
+    private static final String USERNAME = "admin";
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private JWTUserDetailsService userDetailsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        userDetailsService = new JWTUserDetailsService(passwordEncoder.encode("pwd"), passwordEncoder.encode("pwd"));
+    }
+
+    @Benchmark
+    public UserDetails bcryptPerRequest() {
+        return User.withUsername(USERNAME).password(passwordEncoder.encode("pwd")).roles("ADMIN").build();
+    }
+
+    @Benchmark
+    public UserDetails preHashedStore() {
+        return userDetailsService.loadUserByUsername(USERNAME);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
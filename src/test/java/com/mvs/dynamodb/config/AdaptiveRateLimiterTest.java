@@ -0,0 +1,71 @@
+package com.mvs.dynamodb.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+
+import org.junit.Test;
+
+public class AdaptiveRateLimiterTest {
+
+    private final AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(throttling());
+
+    @Test
+    public void givenThrottledWrite_whenAttemptCompletes_thenHalveWriteRateOnly() {
+        AmazonServiceException throttled = new AmazonServiceException("Rate exceeded");
+        throttled.setErrorCode("ProvisionedThroughputExceededException");
+
+        rateLimiter.afterAttempt(attempt(new PutItemRequest(), throttled));
+
+        assertThat(rateLimiter.rate(DynamoDBOperationClass.WRITE), is(50.0));
+        assertThat(rateLimiter.rate(DynamoDBOperationClass.READ), is(100.0));
+    }
+
+    @Test
+    public void givenLoweredRate_whenAttemptsSucceed_thenIncreaseByStepUpToMaximum() {
+        AmazonServiceException throttled = new AmazonServiceException("Rate exceeded");
+        throttled.setErrorCode("ThrottlingException");
+        rateLimiter.afterAttempt(attempt(new GetItemRequest(), throttled));
+
+        rateLimiter.afterAttempt(attempt(new GetItemRequest(), null));
+        assertThat(rateLimiter.rate(DynamoDBOperationClass.READ), is(80.0));
+        rateLimiter.afterAttempt(attempt(new GetItemRequest(), null));
+        rateLimiter.afterAttempt(attempt(new GetItemRequest(), null));
+        assertThat(rateLimiter.rate(DynamoDBOperationClass.READ), is(100.0));
+    }
+
+    @Test
+    public void givenOtherFailure_whenAttemptCompletes_thenKeepRate() {
+        rateLimiter.afterAttempt(attempt(new PutItemRequest(), new AmazonServiceException("Validation failed")));
+
+        assertThat(rateLimiter.rate(DynamoDBOperationClass.WRITE), is(100.0));
+    }
+
+    private static HandlerAfterAttemptContext attempt(AmazonWebServiceRequest originalRequest,
+            Exception exception) {
+        Request<?> request = new DefaultRequest<>(originalRequest, "AmazonDynamoDBv2");
+        return HandlerAfterAttemptContext.builder()
+                .withRequest(request)
+                .withException(exception)
+                .build();
+    }
+
+    private static DynamoDBClientProperties.Throttling throttling() {
+        DynamoDBClientProperties.Throttling throttling = new DynamoDBClientProperties.Throttling();
+        throttling.setMaxRate(100);
+        throttling.setMinRate(10);
+        throttling.setDecreaseFactor(0.5);
+        throttling.setIncreaseStep(30);
+        throttling.setIncreaseInterval(Duration.ZERO);
+        return throttling;
+    }
+}
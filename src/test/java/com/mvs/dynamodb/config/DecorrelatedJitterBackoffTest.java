@@ -0,0 +1,57 @@
+package com.mvs.dynamodb.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+
+import org.junit.Test;
+
+public class DecorrelatedJitterBackoffTest {
+    private static final long BASE_DELAY_MS = 25;
+    private static final long MAX_DELAY_MS = 400;
+    private static final long BUDGET_MS = 1000;
+
+    private final DecorrelatedJitterBackoff backoff = new DecorrelatedJitterBackoff(BASE_DELAY_MS, MAX_DELAY_MS,
+            BUDGET_MS);
+
+    @Test
+    public void givenRetries_whenDelayComputed_thenStayBetweenBaseAndMaximum() {
+        GetItemRequest request = new GetItemRequest();
+        AmazonServiceException throttled = throttled();
+
+        for (int retry = 0; retry < 3; retry++) {
+            assertThat(backoff.delayBeforeNextRetry(request, throttled, retry),
+                    allOf(greaterThanOrEqualTo(0L), lessThanOrEqualTo(MAX_DELAY_MS)));
+        }
+        assertThat(backoff.delayBeforeNextRetry(new GetItemRequest(), throttled, 0),
+                allOf(greaterThanOrEqualTo(BASE_DELAY_MS), lessThanOrEqualTo(BASE_DELAY_MS * 3)));
+    }
+
+    @Test
+    public void givenSpentBudget_whenShouldRetry_thenStopRetrying() {
+        GetItemRequest request = new GetItemRequest();
+        AmazonServiceException throttled = throttled();
+        long spentMs = 0;
+        int retry = 0;
+
+        while (backoff.shouldRetry(request, throttled, retry)) {
+            spentMs += backoff.delayBeforeNextRetry(request, throttled, retry);
+            retry++;
+        }
+
+        assertThat(spentMs, is(BUDGET_MS));
+        assertThat(backoff.shouldRetry(new GetItemRequest(), throttled, 0), is(true));
+    }
+
+    private static AmazonServiceException throttled() {
+        AmazonServiceException throttled = new AmazonServiceException("Rate exceeded");
+        throttled.setErrorCode("ProvisionedThroughputExceededException");
+        throttled.setStatusCode(400);
+        return throttled;
+    }
+}
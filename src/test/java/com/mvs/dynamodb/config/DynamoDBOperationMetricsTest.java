@@ -0,0 +1,95 @@
+package com.mvs.dynamodb.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DynamoDBOperationMetricsTest {
+    private static final String TABLE = "Product";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DynamoDBOperationMetrics metrics = new DynamoDBOperationMetrics();
+
+    @Before
+    public void setUp() {
+        metrics.bindTo(registry);
+    }
+
+    @Test
+    public void givenPutItem_whenSucceeded_thenRecordLatencyAndWriteCapacity() {
+        PutItemRequest putItem = new PutItemRequest().withTableName(TABLE);
+        Request<PutItemRequest> request = new DefaultRequest<>(putItem, "AmazonDynamoDBv2");
+
+        metrics.beforeExecution(putItem);
+        metrics.beforeRequest(request);
+        metrics.afterResponse(request, new Response<>(new PutItemResult()
+                .withConsumedCapacity(new ConsumedCapacity().withTableName(TABLE).withCapacityUnits(2.0)), null));
+
+        assertThat(putItem.getReturnConsumedCapacity(), is(ReturnConsumedCapacity.TOTAL.toString()));
+        assertThat(registry.get("dynamodb.client.requests")
+                .tags("operation", "PutItem", "table", TABLE, "outcome", "success")
+                .timer().count(), is(1L));
+        assertThat(registry.get("dynamodb.client.consumed.capacity")
+                .tags("operation", "PutItem", "table", TABLE, "capacity", "write")
+                .counter().count(), is(2.0));
+    }
+
+    @Test
+    public void givenThrottledGetItem_whenRetried_thenCountThrottleAndRetry() {
+        GetItemRequest getItem = new GetItemRequest().withTableName(TABLE);
+        Request<GetItemRequest> request = new DefaultRequest<>(getItem, "AmazonDynamoDBv2");
+        AmazonServiceException throttled = new AmazonServiceException("Rate exceeded");
+        throttled.setErrorCode("ProvisionedThroughputExceededException");
+
+        metrics.beforeExecution(getItem);
+        metrics.beforeRequest(request);
+        metrics.beforeAttempt(HandlerBeforeAttemptContext.builder().withRequest(request).build());
+        metrics.afterAttempt(HandlerAfterAttemptContext.builder()
+                .withRequest(request)
+                .withException(throttled)
+                .build());
+        metrics.beforeAttempt(HandlerBeforeAttemptContext.builder().withRequest(request).build());
+        metrics.afterResponse(request, new Response<>(new GetItemResult()
+                .withConsumedCapacity(new ConsumedCapacity().withTableName(TABLE).withCapacityUnits(0.5)), null));
+
+        assertThat(registry.get("dynamodb.client.throttles")
+                .tags("operation", "GetItem", "table", TABLE)
+                .counter().count(), is(1.0));
+        assertThat(registry.get("dynamodb.client.retries")
+                .tags("operation", "GetItem", "table", TABLE)
+                .counter().count(), is(1.0));
+        assertThat(registry.get("dynamodb.client.consumed.capacity")
+                .tags("capacity", "read")
+                .counter().count(), is(0.5));
+    }
+
+    @Test
+    public void givenFailedCall_whenRecorded_thenTagOutcomeAsError() {
+        GetItemRequest getItem = new GetItemRequest().withTableName(TABLE);
+        Request<GetItemRequest> request = new DefaultRequest<>(getItem, "AmazonDynamoDBv2");
+
+        metrics.beforeRequest(request);
+        metrics.afterError(request, null, new AmazonServiceException("failed"));
+
+        assertThat(registry.get("dynamodb.client.requests")
+                .tags("operation", "GetItem", "outcome", "error")
+                .timer().count(), is(1L));
+    }
+}
@@ -0,0 +1,21 @@
+package com.mvs.dynamodb.config;
+
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+// only active in load tests, which send real signed tokens instead of the fixed test tokens
+@TestConfiguration
+@ConditionalOnProperty(name = "load-test.enabled", havingValue = "true")
+public class LoadTestContextConfiguration {
+    public static final String LOAD_TEST_SECRET = "load_test_secret_load_test_secret_load_test_secret_load_test_0123";
+
+    @Bean
+    @Primary
+    public TokenUtil loadTestTokenUtil() {
+        return new TokenUtil(LOAD_TEST_SECRET, 10_000, 100_000, 1);
+    }
+}
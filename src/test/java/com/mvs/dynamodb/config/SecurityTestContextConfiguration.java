@@ -1,8 +1,13 @@
 package com.mvs.dynamodb.config;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import com.mvs.security.jwt.model.VerifiedToken;
 import com.mvs.security.jwt.util.TokenUtil;
 
 import org.springframework.boot.test.context.TestConfiguration;
@@ -18,23 +23,21 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 public class SecurityTestContextConfiguration {
     public static final String TEST_USER_TOKEN = "test_user_token";
     public static final String TEST_ADMIN_TOKEN = "test_admin_token";
+    public static final String TEST_SECRET = "test_secret_test_secret_test_secret_test_secret_test_secret_0123";
 
-    // JWT_SECURITY_CONFIG map{key=token, value=username}
-    private static final Map<String, String> JWT_SECURITY_CONFIG = Map.of(
-            TEST_USER_TOKEN, "test_user",
-            TEST_ADMIN_TOKEN, "test_admin");
+    // JWT_SECURITY_CONFIG map{key=token, value=username and roles}
+    private static final Map<String, User> JWT_SECURITY_CONFIG = Map.of(
+            TEST_USER_TOKEN, new User("test_user", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))),
+            TEST_ADMIN_TOKEN, new User("test_admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
 
     @Bean
     public TokenUtil tokenUtil() {
-        return new TokenUtil() {
+        return new TokenUtil(TEST_SECRET, 100, 100, 1) {
             @Override
-            public String getUsernameFromToken(String token) {
-                return JWT_SECURITY_CONFIG.get(token);
-            }
-
-            @Override
-            public boolean validateToken(String token, UserDetails userDetails) {
-                return true;
+            public Optional<VerifiedToken> verify(String token) {
+                return Optional.ofNullable(JWT_SECURITY_CONFIG.get(token))
+                        .map(user -> new VerifiedToken(user.getUsername(), List.copyOf(user.getAuthorities()),
+                                Date.from(Instant.now().plusMillis(TokenUtil.VALIDITY_MS))));
             }
         };
     }
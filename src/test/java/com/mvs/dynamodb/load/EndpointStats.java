@@ -0,0 +1,51 @@
+package com.mvs.dynamodb.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// latency and outcome of every request sent to one endpoint, safe to record from many threads
+class EndpointStats {
+    private final String endpoint;
+    private final ConcurrentHistogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long latencyNanos, boolean failed) {
+        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    long requests() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double errorRate() {
+        return requests() == 0 ? 0d : (double) errors() / requests();
+    }
+
+    // latency at the given percentile in milliseconds
+    double percentileMs(double percentile) {
+        Histogram snapshot = latencyMicros.copy();
+        return snapshot.getValueAtPercentile(percentile) / 1000d;
+    }
+
+    double maxMs() {
+        return latencyMicros.getMaxValue() / 1000d;
+    }
+}
@@ -0,0 +1,301 @@
+package com.mvs.dynamodb.load;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.rule.LocalDbCreationRule;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives a mixed read/write/list workload through the real HTTP, JWT and security stack against DynamoDB Local,
+ * at a fixed arrival rate, and reports throughput, p50/p99/p999 latency and error rate per endpoint. Latency is
+ * measured from the time a request was due rather than sent, so a saturated server shows up as latency instead of
+ * a lower request rate.
+ *
+ * Excluded from the default build, run it with "mvn -P load-test verify" and size it with -Dload.products,
+ * -Dload.rate (requests per second), -Dload.duration-seconds, -Dload.threads and -Dload.max-error-rate.
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = DynamoDBSpringDataDemoApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "amazon.dynamodb.endpoint=http://localhost:8000/",
+        "amazon.aws.accesskey=test1",
+        "amazon.aws.secretkey=test231",
+        "load-test.enabled=true",
+})
+@ActiveProfiles("test")
+public class ProductApiLoadTest {
+    private static final int PRODUCTS = Integer.getInteger("load.products", 1000);
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final int THREADS = Integer.getInteger("load.threads", 64);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private static final int CATEGORIES = 10;
+    private static final int PAGE_SIZE = 50;
+    private static final Path REPORT = Paths.get("target", "load-test-report.csv");
+    private static final long DRAIN_TIMEOUT_SECONDS = DURATION_SECONDS + 60L;
+
+    @ClassRule
+    public static LocalDbCreationRule dynamoDB = new LocalDbCreationRule();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AmazonDynamoDB amazonDynamoDB;
+
+    @Autowired
+    private DynamoDBMapper dynamoDBMapper;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private List<String> productIds;
+    private String bearerToken;
+
+    @Before
+    public void setup() {
+        try {
+            CreateTableRequest tableRequest = dynamoDBMapper.generateCreateTableRequest(Product.class);
+            tableRequest.setProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+            tableRequest.getGlobalSecondaryIndexes().forEach(index -> index
+                    .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L))
+                    .withProjection(new Projection().withProjectionType(ProjectionType.ALL)));
+            amazonDynamoDB.createTable(tableRequest);
+        } catch (ResourceInUseException e) {
+            // Do nothing, table already created
+        }
+        List<Product> products = IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> randomProduct(UUID.randomUUID().toString()))
+                .collect(Collectors.toList());
+        dynamoDBMapper.batchSave(products);
+        productIds = products.stream().map(Product::getId).collect(Collectors.toList());
+        // a real signed token, so every request goes through signature checks and the verified-token cache
+        bearerToken = "Bearer " + tokenUtil.generateToken(
+                new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))).token();
+    }
+
+    @Test
+    public void givenMixedTraffic_whenDrivenAtTargetRate_thenErrorRateStaysWithinLimit() throws Exception {
+        Map<String, Operation> operations = operations();
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        operations.keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+
+        Run run = drive(operations, stats);
+
+        report(stats.values(), run);
+        // statistics of a run cut short miss the slowest requests, they are reported but never pass
+        assertThat("requests still running " + DRAIN_TIMEOUT_SECONDS + "s after the last one was sent",
+                run.complete(), is(true));
+        for (EndpointStats endpointStats : stats.values()) {
+            assertThat(endpointStats.endpoint() + " error rate", endpointStats.errorRate(),
+                    lessThanOrEqualTo(MAX_ERROR_RATE));
+        }
+    }
+
+    // the request mix, each operation is picked with a probability proportional to its weight
+    private Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("GET /{id}", new Operation(50, () -> get("/api/v1/products/" + randomId())));
+        operations.put("GET ?limit", new Operation(15, () -> get("/api/v1/products?limit=" + PAGE_SIZE)));
+        operations.put("GET /category/{category}", new Operation(15, () -> get("/api/v1/products/category/"
+                + "Category%20" + ThreadLocalRandom.current().nextInt(CATEGORIES) + "?limit=" + PAGE_SIZE)));
+        operations.put("POST", new Operation(10, () -> send("POST", "/api/v1/products", randomProduct(null))));
+        operations.put("PUT /{id}", new Operation(10, () -> {
+            String id = randomId();
+            return send("PUT", "/api/v1/products/" + id, randomProduct(id));
+        }));
+        return operations;
+    }
+
+    // open model: requests are started on schedule whether or not earlier ones have completed
+    private Run drive(Map<String, Operation> operations, Map<String, EndpointStats> stats)
+            throws InterruptedException {
+        int totalWeight = operations.values().stream().mapToInt(Operation::weight).sum();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long totalRequests = (long) RATE * DURATION_SECONDS;
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < totalRequests; i++) {
+                long dueAt = start + i * intervalNanos;
+                long wait;
+                while ((wait = dueAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String endpoint = pick(operations, totalWeight);
+                Operation operation = operations.get(endpoint);
+                EndpointStats endpointStats = stats.get(endpoint);
+                workers.execute(() -> {
+                    boolean failed;
+                    try {
+                        failed = operation.request().get().statusCode() >= 400;
+                    } catch (RuntimeException e) {
+                        log.warn("Request to {} failed", endpoint, e);
+                        failed = true;
+                    }
+                    endpointStats.record(System.nanoTime() - dueAt, failed);
+                });
+            }
+        } finally {
+            workers.shutdown();
+        }
+        boolean complete = workers.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+        if (!complete) {
+            List<Runnable> neverStarted = workers.shutdownNow();
+            log.error("Load test stopped with {} requests not started and more still in flight",
+                    neverStarted.size());
+        }
+        return new Run(elapsedNanos, complete);
+    }
+
+    private void report(Iterable<EndpointStats> stats, Run run) throws IOException {
+        double elapsedSeconds = run.elapsedNanos() / 1e9;
+        Files.createDirectories(REPORT.getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(REPORT))) {
+            csv.println("endpoint,requests,errors,error_rate,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms,complete");
+            log.info(String.format(Locale.ROOT, "%-26s %9s %7s %8s %10s %9s %9s %9s %9s", "endpoint", "requests",
+                    "errors", "error%", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+            for (EndpointStats endpointStats : stats) {
+                double throughput = endpointStats.requests() / elapsedSeconds;
+                csv.println(String.format(Locale.ROOT, "%s,%d,%d,%.4f,%.1f,%.2f,%.2f,%.2f,%.2f,%b",
+                        endpointStats.endpoint(), endpointStats.requests(), endpointStats.errors(),
+                        endpointStats.errorRate(), throughput, endpointStats.percentileMs(50),
+                        endpointStats.percentileMs(99), endpointStats.percentileMs(99.9), endpointStats.maxMs(),
+                        run.complete()));
+                log.info(String.format(Locale.ROOT, "%-26s %9d %7d %8.2f %10.1f %9.2f %9.2f %9.2f %9.2f",
+                        endpointStats.endpoint(), endpointStats.requests(), endpointStats.errors(),
+                        endpointStats.errorRate() * 100, throughput, endpointStats.percentileMs(50),
+                        endpointStats.percentileMs(99), endpointStats.percentileMs(99.9), endpointStats.maxMs()));
+            }
+        }
+        if (!run.complete()) {
+            log.warn("Load test report is incomplete, requests that were still running are missing");
+        }
+        log.info("Load test report written to {}", REPORT.toAbsolutePath());
+    }
+
+    private static String pick(Map<String, Operation> operations, int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            ticket -= entry.getValue().weight();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("No operation for ticket " + ticket);
+    }
+
+    private String randomId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    private static Product randomProduct(String id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Product.builder()
+                .id(id)
+                .name("Product " + random.nextInt(100_000))
+                .category("Category " + random.nextInt(CATEGORIES))
+                .price((double) random.nextInt(1, 100_000))
+                .build();
+    }
+
+    private HttpResponse<Void> get(String path) {
+        return execute(request(path).GET().build());
+    }
+
+    private HttpResponse<Void> send(String method, String path, Product product) {
+        try {
+            return execute(request(path)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(product)))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .header(HttpHeaders.AUTHORIZATION, bearerToken);
+    }
+
+    private HttpResponse<Void> execute(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Operation(int weight, Supplier<HttpResponse<Void>> request) {
+    }
+
+    // complete is false when requests were still running after the drain timeout and had to be abandoned
+    private record Run(long elapsedNanos, boolean complete) {
+    }
+}
@@ -8,13 +8,20 @@ import static org.mockito.Mockito.verify;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
 import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
 import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.model.CategoryQuery;
 import com.mvs.dynamodb.model.Product;
 import com.mvs.dynamodb.rule.LocalDbCreationRule;
 
@@ -59,6 +66,9 @@ public class ProductRepositoryIntegrationTest {
             dynamoDBMapper = new DynamoDBMapper(amazonDynamoDB);
             CreateTableRequest tableRequest = dynamoDBMapper.generateCreateTableRequest(Product.class);
             tableRequest.setProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+            tableRequest.getGlobalSecondaryIndexes().forEach(index -> index
+                    .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L))
+                    .withProjection(new Projection().withProjectionType(ProjectionType.ALL)));
             amazonDynamoDB.createTable(tableRequest);
         } catch (ResourceInUseException e) {
             // Do nothing, table already created
@@ -86,6 +96,54 @@ public class ProductRepositoryIntegrationTest {
         verify(repository, VerificationModeFactory.times(1)).findAll();
     }
 
+    @Test
+    public void givenProductsInCategories_whenRunFindByCategory_thenReturnOnlyThatCategory() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d);
+        var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+        var query = CategoryQuery.of("Laptop");
+
+        repository.save(iphone13Pro);
+        repository.save(macBookPro);
+        QueryResultPage<Product> page = repository.findByCategory(query, 10, null);
+
+        assertThat(page.getResults(), is(List.of(macBookPro)));
+        verify(repository, VerificationModeFactory.times(1)).findByCategory(query, 10, null);
+    }
+
+    @Test
+    public void givenProductsInPriceRange_whenRunFindByCategoryDescending_thenReturnMatchesByPrice() {
+        var iphone13 = new Product("869d9b64-6159-4b5b-9fc3-944c6407ad38", "Iphone13", "Mobile Phone", 800d);
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d);
+        var iphone13ProMax = new Product("de5d47f1-460a-4217-b862-f1b3a9a1fc05", "Iphone13 Pro Max", "Mobile Phone",
+                1200d);
+        var query = new CategoryQuery("Mobile Phone", 900d, 1200d, false);
+
+        repository.save(iphone13);
+        repository.save(iphone13Pro);
+        repository.save(iphone13ProMax);
+        QueryResultPage<Product> page = repository.findByCategory(query, 10, null);
+
+        assertThat(page.getResults(), is(List.of(iphone13ProMax, iphone13Pro)));
+        verify(repository, VerificationModeFactory.times(1)).findByCategory(query, 10, null);
+    }
+
+    @Test
+    public void givenProduct_whenUpdateAttributes_thenChangeOnlyThoseAndIncrementVersion() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        repository.save(new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d));
+
+        Product updated = repository.updateAttributes(id, Map.of("price", 900d), Set.of(1L));
+        Product found = repository.findById(id).get();
+
+        assertThat(updated, is(new Product(id, "Iphone13 Pro", "Mobile Phone", 900d, 2L)));
+        assertThat(found, is(updated));
+        try {
+            repository.updateAttributes(id, Map.of("price", 800d), Set.of(1L));
+            fail("Should throw ConditionalCheckFailedException");
+        } catch (ConditionalCheckFailedException ex) {
+        }
+    }
+
     @Test
     public void givenProduct_whenRunFindById_thenReturnRecord() {
         var id = "f03f8643-d547-435c-a980-d9c013c86de4";
@@ -0,0 +1,145 @@
+package com.mvs.dynamodb.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ProductReadCoalescerTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProductReadCoalescer coalescer = new ProductReadCoalescer(true, Duration.ofSeconds(5));
+
+    @Before
+    public void setUp() {
+        coalescer.bindTo(registry);
+    }
+
+    @Test
+    public void givenConcurrentReadsOfSameKey_whenInFlight_thenReadOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> coalescer.execute("getById", "1", () -> {
+            reads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "Cap";
+        }, UnaryOperator.identity()));
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("getById", "1", () -> "Hat", UnaryOperator.identity()));
+        awaitShared();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is("Cap"));
+        assertThat(second.get(5, TimeUnit.SECONDS), is("Cap"));
+        assertThat(reads.get(), is(1));
+        assertThat(registry.get("product.read.coalescing")
+                .tags("operation", "getById", "result", "executed")
+                .counter().count(), is(1.0));
+    }
+
+    @Test
+    public void givenCompletedRead_whenReadAgain_thenReadIsNotReused() {
+        assertThat(coalescer.execute("getById", "1", () -> "Cap", UnaryOperator.identity()), is("Cap"));
+        assertThat(coalescer.execute("getById", "1", () -> "Hat", UnaryOperator.identity()), is("Hat"));
+    }
+
+    @Test(expected = ProductNotFoundException.class)
+    public void givenFailingRead_whenExecuted_thenRethrow() {
+        coalescer.execute("getById", "1", () -> {
+            throw new ProductNotFoundException("Product not found for id: 1");
+        }, UnaryOperator.identity());
+    }
+
+    @Test
+    public void givenSharedRead_whenCompleted_thenWaitingCallerGetsCopy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> coalescer.execute("getAll", "",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return new ArrayList<>(List.of("Cap"));
+                }, ArrayList::new));
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<List<String>> second = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("getAll", "", () -> new ArrayList<>(List.of("Hat")), ArrayList::new));
+        awaitShared();
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS), is(first.get(5, TimeUnit.SECONDS)));
+        assertThat(second.get() == first.get(), is(false));
+    }
+
+    @Test
+    public void givenWriteDuringRead_whenInvalidated_thenReadAgainBeforeSharing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> coalescer.execute("getById", "1", () -> {
+            if (reads.incrementAndGet() == 1) {
+                started.countDown();
+                await(release);
+                return "Cap";
+            }
+            return "Hat";
+        }, UnaryOperator.identity()));
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        coalescer.invalidate("getById", "1");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is("Hat"));
+        assertThat(reads.get(), is(2));
+    }
+
+    @Test
+    public void givenStuckRead_whenTimeoutElapses_thenWaitingCallerReadsOnItsOwn() throws Exception {
+        ProductReadCoalescer shortTimeout = new ProductReadCoalescer(true, Duration.ofMillis(50));
+        shortTimeout.bindTo(registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> shortTimeout.execute("getById", "1",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return "Cap";
+                }, UnaryOperator.identity()));
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+        assertThat(shortTimeout.execute("getById", "1", () -> "Hat", UnaryOperator.identity()), is("Hat"));
+        assertThat(registry.get("product.read.coalescing")
+                .tags("operation", "getById", "result", "timed-out")
+                .counter().count(), is(1.0));
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS), is("Cap"));
+    }
+
+    private void awaitShared() {
+        while (registry.find("product.read.coalescing").tags("result", "shared").counter() == null) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,20 +3,49 @@ package com.mvs.dynamodb.service;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.BatchItemResult;
+import com.mvs.dynamodb.model.CategoryQuery;
 import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
 import com.mvs.dynamodb.repository.ProductRepository;
+import com.mvs.dynamodb.web.exception.InvalidCursorException;
+import com.mvs.dynamodb.web.exception.InvalidPatchException;
+import com.mvs.dynamodb.web.exception.InvalidPriceRangeException;
+import com.mvs.dynamodb.web.exception.ProductConflictException;
 import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+import com.mvs.dynamodb.web.exception.ProductVersionMismatchException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -25,6 +54,7 @@ import org.mockito.internal.verification.VerificationModeFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -49,9 +79,13 @@ public class ProductServiceTest {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Before
     public void setUp() {
         reset(productRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -69,6 +103,240 @@ public class ProductServiceTest {
         verify(productRepository, VerificationModeFactory.times(1)).findAll();
     }
 
+    @Test
+    public void given2Products_whenGetPageByPage_thenFollowCursorUntilLastPage() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+        Map<String, AttributeValue> lastEvaluatedKey = Map.of("id", new AttributeValue().withS(iphone13Pro.getId()));
+
+        ScanResultPage<Product> firstPage = new ScanResultPage<>();
+        firstPage.setResults(List.of(iphone13Pro));
+        firstPage.setLastEvaluatedKey(lastEvaluatedKey);
+        ScanResultPage<Product> lastPage = new ScanResultPage<>();
+        lastPage.setResults(List.of(macBookPro));
+
+        given(productRepository.findPage(1, null)).willReturn(firstPage);
+        given(productRepository.findPage(1, lastEvaluatedKey)).willReturn(lastPage);
+
+        ProductPage first = productService.getPage(1, null);
+        ProductPage last = productService.getPage(1, first.nextCursor());
+
+        assertThat(first.items(), is(List.of(iphone13Pro)));
+        assertThat(last.items(), is(List.of(macBookPro)));
+        assertThat(last.nextCursor(), is((String) null));
+        verify(productRepository, VerificationModeFactory.times(1)).findPage(1, null);
+        verify(productRepository, VerificationModeFactory.times(1)).findPage(1, lastEvaluatedKey);
+    }
+
+    @Test
+    public void givenCategory_whenGetPageByCategory_thenQueryIndexAndReturnCursor() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        Map<String, AttributeValue> lastEvaluatedKey = Map.of(
+                "id", new AttributeValue().withS(iphone13Pro.getId()),
+                "category", new AttributeValue().withS(iphone13Pro.getCategory()));
+
+        QueryResultPage<Product> page = new QueryResultPage<>();
+        page.setResults(List.of(iphone13Pro));
+        page.setLastEvaluatedKey(lastEvaluatedKey);
+
+        var query = CategoryQuery.of("Mobile Phone");
+        given(productRepository.findByCategory(query, 1, null)).willReturn(page);
+
+        ProductPage result = productService.getPageByCategory(query, 1, null);
+
+        assertThat(result.items(), is(List.of(iphone13Pro)));
+        assertThat(PageCursorCodec.decode(result.nextCursor()), is(lastEvaluatedKey));
+        verify(productRepository, VerificationModeFactory.times(1)).findByCategory(query, 1, null);
+        verify(productRepository, VerificationModeFactory.times(0)).findPage(anyInt(), any());
+    }
+
+    @Test
+    public void givenInvertedPriceRange_whenGetPageByCategory_thenThrowsInvalidPriceRangeException() {
+        try {
+            productService.getPageByCategory(new CategoryQuery("Mobile Phone", 1000d, 10d, true), 10, null);
+            fail("Should throw InvalidPriceRangeException");
+        } catch (InvalidPriceRangeException ex) {
+        }
+
+        verify(productRepository, VerificationModeFactory.times(0)).findByCategory(any(), anyInt(), any());
+    }
+
+    @Test
+    public void givenMalformedCursor_whenGetPage_thenThrowsInvalidCursorException() {
+        try {
+            productService.getPage(10, "not-a-cursor");
+            fail("Should throw InvalidCursorException");
+        } catch (InvalidCursorException ex) {
+        }
+
+        verify(productRepository, VerificationModeFactory.times(0)).findPage(anyInt(), any());
+    }
+
+    @Test
+    public void givenProductsInSegments_whenStreamAll_thenReturnEveryProduct() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+        Map<String, AttributeValue> lastEvaluatedKey = Map.of("id", new AttributeValue().withS(iphone13Pro.getId()));
+
+        ScanResultPage<Product> emptyPage = new ScanResultPage<>();
+        emptyPage.setResults(List.of());
+        ScanResultPage<Product> firstPage = new ScanResultPage<>();
+        firstPage.setResults(List.of(iphone13Pro));
+        firstPage.setLastEvaluatedKey(lastEvaluatedKey);
+        ScanResultPage<Product> lastPage = new ScanResultPage<>();
+        lastPage.setResults(List.of(macBookPro));
+
+        given(productRepository.findSegmentPage(anyInt(), anyInt(), anyInt(), isNull())).willReturn(emptyPage);
+        given(productRepository.findSegmentPage(eq(1), anyInt(), anyInt(), isNull())).willReturn(firstPage);
+        given(productRepository.findSegmentPage(eq(1), anyInt(), anyInt(), eq(lastEvaluatedKey))).willReturn(lastPage);
+
+        Set<Product> streamed;
+        try (Stream<Product> products = productService.streamAll()) {
+            streamed = products.collect(Collectors.toSet());
+        }
+
+        assertThat(streamed, is(Set.of(iphone13Pro, macBookPro)));
+        verify(productRepository, VerificationModeFactory.times(1)).findSegmentPage(eq(1), anyInt(), anyInt(),
+                eq(lastEvaluatedKey));
+    }
+
+    @Test
+    public void givenValidAndInvalidProducts_whenCreateAll_thenReportPerItemResults() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+        var invalid = new Product(null, "MacBook Air", "Laptop", -1d);
+        var failedBatch = new DynamoDBMapper.FailedBatch();
+        failedBatch.setUnprocessedItems(Map.of("product", List.of(new WriteRequest(
+                new PutRequest(Map.of("id", new AttributeValue().withS(macBookPro.getId())))))));
+
+        given(productRepository.batchWrite(anyList())).willReturn(List.of(failedBatch));
+
+        BatchCreateResult result = productService.createAll(List.of(iphone13Pro, invalid, macBookPro));
+
+        assertThat(result.created(), is(1L));
+        assertThat(result.failed(), is(2L));
+        assertThat(result.items().get(0).status(), is(BatchItemResult.Status.CREATED));
+        assertThat(result.items().get(1).status(), is(BatchItemResult.Status.INVALID));
+        assertThat(result.items().get(2).status(), is(BatchItemResult.Status.FAILED));
+        verify(productRepository, VerificationModeFactory.times(1)).batchWrite(List.of(iphone13Pro, macBookPro));
+    }
+
+    @Test
+    public void givenStoredId_whenCreateAll_thenReportProductAsReplaced() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+        var storedIphone13Pro = iphone13Pro.toBuilder().price(900d).version(4L).build();
+
+        given(productRepository.batchLoad(List.of(iphone13Pro.getId(), macBookPro.getId())))
+                .willReturn(List.of(storedIphone13Pro));
+        given(productRepository.batchWrite(anyList())).willReturn(List.of());
+
+        BatchCreateResult result = productService.createAll(List.of(iphone13Pro, macBookPro));
+
+        assertThat(result.created(), is(1L));
+        assertThat(result.replaced(), is(1L));
+        assertThat(result.failed(), is(0L));
+        assertThat(result.items().get(0).status(), is(BatchItemResult.Status.REPLACED));
+        assertThat(result.items().get(1).status(), is(BatchItemResult.Status.CREATED));
+    }
+
+    @Test
+    public void givenStoredProduct_whenCreateAllWithItsId_thenWriteNextVersion() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        var stored = new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d, 3L);
+        var replacement = new Product(id, "Iphone13 Pro", "Mobile Phone", 900d);
+
+        given(productRepository.findById(id)).willReturn(Optional.of(stored));
+        assertThat(productService.getById(id).getVersion(), is(3L));
+
+        given(productRepository.batchLoad(List.of(id))).willReturn(List.of(stored));
+        given(productRepository.batchWrite(anyList())).willReturn(List.of());
+
+        productService.createAll(List.of(replacement));
+
+        verify(productRepository, VerificationModeFactory.times(1))
+                .batchWrite(List.of(new Product(id, "Iphone13 Pro", "Mobile Phone", 900d, 4L)));
+        // the cached version 3 is gone, so a client sending its ETag learns that the product changed
+        given(productRepository.findById(id)).willReturn(Optional.of(replacement));
+        assertThat(productService.getById(id).getVersion(), is(4L));
+    }
+
+    @Test
+    public void givenTakenId_whenCreate_thenReplaceStoredVersion() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        var iphone13Pro = new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d);
+        List<Long> savedVersions = new ArrayList<>();
+
+        given(productRepository.save(iphone13Pro)).willAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            savedVersions.add(product.getVersion());
+            if (product.getVersion() == null) {
+                throw new ConditionalCheckFailedException("The conditional request failed");
+            }
+            return product;
+        });
+        given(productRepository.findById(id)).willReturn(Optional.of(iphone13Pro.toBuilder().version(3L).build()));
+
+        productService.create(iphone13Pro);
+
+        assertThat(savedVersions, is(Arrays.asList(null, 3L)));
+    }
+
+    @Test
+    public void givenProductDeletedWhileCreated_whenCreate_thenCreateItInstead() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        var iphone13Pro = new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d);
+
+        given(productRepository.save(iphone13Pro))
+                .willThrow(new ConditionalCheckFailedException("The conditional request failed"))
+                .willReturn(iphone13Pro);
+        given(productRepository.findById(id)).willReturn(Optional.empty());
+
+        Product created = productService.create(iphone13Pro);
+
+        assertThat(created, is(iphone13Pro));
+        verify(productRepository, VerificationModeFactory.times(2)).save(iphone13Pro);
+        verify(productRepository, VerificationModeFactory.times(0)).saveIfExists(any());
+    }
+
+    @Test
+    public void givenProductChangingWhileCreated_whenCreate_thenThrowsProductConflictException() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        var iphone13Pro = new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d);
+
+        given(productRepository.save(iphone13Pro))
+                .willThrow(new ConditionalCheckFailedException("The conditional request failed"));
+        given(productRepository.findById(id)).willReturn(Optional.of(iphone13Pro.toBuilder().version(3L).build()));
+
+        try {
+            productService.create(iphone13Pro);
+            fail("Should throw ProductConflictException");
+        } catch (ProductConflictException ex) {
+        }
+
+        verify(productRepository, VerificationModeFactory.times(3)).save(iphone13Pro);
+    }
+
+    @Test
+    public void givenFailedBatch_whenCreateAll_thenReportFixedMessage() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        var failedBatch = new DynamoDBMapper.FailedBatch();
+        failedBatch.setException(new IllegalStateException("arn:aws:dynamodb:eu-west-2:123456789012:table/product"));
+
+        given(productRepository.batchWrite(anyList())).willReturn(List.of(failedBatch));
+
+        BatchCreateResult result = productService.createAll(List.of(iphone13Pro));
+
+        assertThat(result.items().get(0).status(), is(BatchItemResult.Status.FAILED));
+        assertThat(result.items().get(0).message(), is("Item could not be written"));
+    }
+
     @Test
     public void givenValidId_whenGetById_thenProductShouldBeFound() {
         var id = "2b2d4766-37ed-4af2-970a-7c64228ab487";
@@ -82,6 +350,56 @@ public class ProductServiceTest {
         verify(productRepository, VerificationModeFactory.times(1)).findById(id);
     }
 
+    @Test
+    public void givenExistingAndMissingIds_whenGetByIds_thenReturnFoundAndMissing() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                1000d);
+        var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+        var missingId = "2b2d4766-37ed-4af2-970a-7c64228ab487";
+        List<String> ids = List.of(macBookPro.getId(), missingId, iphone13Pro.getId());
+
+        given(productRepository.batchLoad(ids)).willReturn(List.of(iphone13Pro, macBookPro));
+
+        ProductBatchGetResult result = productService.getByIds(ids);
+
+        assertThat(result.found(), is(List.of(macBookPro, iphone13Pro)));
+        assertThat(result.missing(), is(List.of(missingId)));
+        verify(productRepository, VerificationModeFactory.times(1)).batchLoad(ids);
+    }
+
+    @Test
+    public void givenCachedProduct_whenGetByIdAgain_thenRepositoryIsNotCalled() {
+        var id = "2b2d4766-37ed-4af2-970a-7c64228ab487";
+        var iphone13Pro = new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d);
+
+        given(productRepository.findById(id)).willReturn(Optional.of(iphone13Pro));
+
+        productService.getById(id);
+        Product found = productService.getById(id);
+
+        assertThat(found, is(iphone13Pro));
+        verify(productRepository, VerificationModeFactory.times(1)).findById(id);
+    }
+
+    @Test
+    public void givenCachedProduct_whenUpdateAndDelete_thenCacheIsRefreshedAndInvalidated() {
+        var id = "2b2d4766-37ed-4af2-970a-7c64228ab487";
+        var iphone13Pro = new Product(id, "Iphone13 Pro", "Mobile Phone", 1000d);
+        var updatedIphone13Pro = iphone13Pro.toBuilder().price(2000d).build();
+
+        given(productRepository.findById(id)).willReturn(Optional.of(iphone13Pro));
+        given(productRepository.saveIfExists(updatedIphone13Pro)).willReturn(updatedIphone13Pro);
+
+        productService.getById(id);
+        productService.update(updatedIphone13Pro, Set.of());
+        assertThat(productService.getById(id), is(updatedIphone13Pro));
+
+        productService.delete(id);
+        productService.getById(id);
+
+        verify(productRepository, VerificationModeFactory.times(2)).findById(id);
+    }
+
     @Test
     public void givenInvalidId_whenGetById_thenThrowsProductNotFoundException() {
         var id = "2b2d4766-37ed-4af2-970a-7c64228ab487";
@@ -101,14 +419,13 @@ public class ProductServiceTest {
     public void givenValidProduct_whenUpdate_thenProductShouldBeUpdated() {
         var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d);
 
-        given(productRepository.existsById(iphone13Pro.getId())).willReturn(true);
-        given(productRepository.save(iphone13Pro)).willReturn(iphone13Pro);
+        given(productRepository.saveIfExists(iphone13Pro)).willReturn(iphone13Pro);
 
-        Product updated = productService.update(iphone13Pro);
+        Product updated = productService.update(iphone13Pro, Set.of());
 
         assertThat(iphone13Pro, is(updated));
-        verify(productRepository, VerificationModeFactory.times(1)).existsById(iphone13Pro.getId());
-        verify(productRepository, VerificationModeFactory.times(1)).save(iphone13Pro);
+        verify(productRepository, VerificationModeFactory.times(1)).saveIfExists(iphone13Pro);
+        verify(productRepository, VerificationModeFactory.times(0)).existsById(iphone13Pro.getId());
     }
 
     @Test
@@ -116,16 +433,117 @@ public class ProductServiceTest {
         var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d);
         var updatedIphone13Pro = iphone13Pro.toBuilder().price(2000d).build();
 
-        given(productRepository.existsById(updatedIphone13Pro.getId())).willReturn(false);
+        given(productRepository.saveIfExists(updatedIphone13Pro))
+                .willThrow(new ConditionalCheckFailedException("The conditional request failed"));
 
         try {
-            productService.update(updatedIphone13Pro);
+            productService.update(updatedIphone13Pro, Set.of(1L));
             fail("Should throw ProductNotFoundException");
         } catch (ProductNotFoundException ex) {
         }
 
-        verify(productRepository, VerificationModeFactory.times(1)).existsById(updatedIphone13Pro.getId());
-        verify(productRepository, VerificationModeFactory.times(0)).save(updatedIphone13Pro);
+        verify(productRepository, VerificationModeFactory.times(1)).saveIfExists(updatedIphone13Pro);
+    }
+
+    @Test
+    public void givenStaleVersion_whenUpdate_thenThrowsProductVersionMismatchException() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d,
+                2L);
+
+        given(productRepository.saveIfExists(iphone13Pro))
+                .willThrow(new ConditionalCheckFailedException("The conditional request failed"));
+        given(productRepository.existsById(iphone13Pro.getId())).willReturn(true);
+
+        try {
+            productService.update(iphone13Pro, Set.of(2L));
+            fail("Should throw ProductVersionMismatchException");
+        } catch (ProductVersionMismatchException ex) {
+        }
+
+        verify(productRepository, VerificationModeFactory.times(1)).saveIfExists(iphone13Pro);
+        verify(productRepository, VerificationModeFactory.times(0)).findById(iphone13Pro.getId());
+    }
+
+    @Test
+    public void givenIfMatchList_whenUpdate_thenSaveAtTheListedVersionThatIsStored() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d);
+
+        given(productRepository.saveIfExists(any())).willAnswer(invocation -> {
+            Product saved = invocation.getArgument(0);
+            if (saved.getVersion() != 4L) {
+                throw new ConditionalCheckFailedException("The conditional request failed");
+            }
+            return saved.toBuilder().version(5L).build();
+        });
+
+        Product updated = productService.update(iphone13Pro, new LinkedHashSet<>(List.of(3L, 4L)));
+
+        assertThat(updated.getVersion(), is(5L));
+        verify(productRepository, VerificationModeFactory.times(2)).saveIfExists(any());
+        verify(productRepository, VerificationModeFactory.times(0)).existsById(iphone13Pro.getId());
+    }
+
+    @Test
+    public void givenProductChangingWhileReplaced_whenUpdateWithoutVersion_thenThrowsProductConflictException() {
+        var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d);
+
+        given(productRepository.saveIfExists(iphone13Pro))
+                .willThrow(new ConditionalCheckFailedException("The conditional request failed"));
+        given(productRepository.findById(iphone13Pro.getId()))
+                .willReturn(Optional.of(iphone13Pro.toBuilder().version(3L).build()));
+
+        try {
+            productService.update(iphone13Pro, Set.of());
+            fail("Should throw ProductConflictException");
+        } catch (ProductConflictException ex) {
+        }
+
+        verify(productRepository, VerificationModeFactory.times(3)).saveIfExists(iphone13Pro);
+    }
+
+    @Test
+    public void givenPricePatch_whenPatch_thenUpdateOnlyPriceAndReturnPatchedProduct() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        var patched = new Product(id, "Iphone13 Pro", "Mobile Phone", 900d, 4L);
+
+        given(productRepository.updateAttributes(id, Map.of("price", 900d), Set.of(3L))).willReturn(patched);
+
+        assertThat(productService.patch(id, Map.<String, Object>of("price", 900), Set.of(3L)), is(patched));
+        // the patched product is cached, reading it again does not call DynamoDB
+        assertThat(productService.getById(id), is(patched));
+        verify(productRepository, VerificationModeFactory.times(0)).findById(id);
+    }
+
+    @Test
+    public void givenInvalidPatch_whenPatch_thenThrowsInvalidPatchException() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("price", -1);
+        patch.put("name", null);
+
+        try {
+            productService.patch(id, patch, Set.of());
+            fail("Should throw InvalidPatchException");
+        } catch (InvalidPatchException ex) {
+            assertThat(ex.getViolations(), is("Name cannot be null, Price cannot be negative"));
+        }
+
+        verify(productRepository, VerificationModeFactory.times(0)).updateAttributes(any(), any(), any());
+    }
+
+    @Test
+    public void givenUnknownProperty_whenPatch_thenThrowsInvalidPatchExceptionWithoutProperty() {
+        var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+
+        try {
+            productService.patch(id, Map.<String, Object>of("<script>", 1), Set.of());
+            fail("Should throw InvalidPatchException");
+        } catch (InvalidPatchException ex) {
+            assertThat(ex.getViolations(), is("Only name, category and price can be patched"));
+            assertThat(ex.getMessage(), is("Property <script> cannot be patched"));
+        }
+
+        verify(productRepository, VerificationModeFactory.times(0)).updateAttributes(any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,166 @@
+package com.mvs.dynamodb.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.amazonaws.AmazonServiceException;
+import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.repository.ProductRepository;
+import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.internal.verification.VerificationModeFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = DynamoDBSpringDataDemoApplication.class)
+@WebAppConfiguration
+@TestPropertySource(properties = {
+        "amazon.dynamodb.endpoint=http://localhost:8000/",
+        "amazon.aws.accesskey=test1",
+        "amazon.aws.secretkey=test231",
+        "product.write-behind.enabled=true",
+        // flushes are triggered by the tests, the interval never elapses
+        "product.write-behind.flush-interval=1h",
+        "product.write-behind.max-attempts=2" })
+@ActiveProfiles("test")
+public class ProductServiceWriteBehindTest {
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductWriteBuffer writeBuffer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Before
+    public void setUp() {
+        reset(productRepository);
+        writeBuffer.flush();
+        reset(productRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    public void givenNewProduct_whenCreate_thenBufferUntilFlushed() {
+        var iphone13Pro = new Product(null, "Iphone13 Pro", "Mobile Phone", 1000d);
+
+        Product created = productService.create(iphone13Pro);
+
+        assertThat(created.getVersion(), is(1L));
+        verify(productRepository, VerificationModeFactory.times(0)).save(any());
+        verify(productRepository, VerificationModeFactory.times(0)).batchWrite(anyList());
+        assertThat(productService.getById(created.getId()), is(created));
+        verify(productRepository, VerificationModeFactory.times(0)).findById(created.getId());
+
+        assertThat(writeBuffer.flush(), is(0));
+        verify(productRepository, VerificationModeFactory.times(1)).batchWrite(List.of(created));
+    }
+
+    @Test
+    public void givenStoredProduct_whenCreateWithItsId_thenBufferNextVersion() {
+        var stored = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d, 3L);
+
+        given(productRepository.findById(stored.getId())).willReturn(Optional.of(stored));
+
+        Product created = productService.create(new Product(stored.getId(), "Iphone13 Pro", "Mobile Phone", 900d));
+
+        assertThat(created.getVersion(), is(4L));
+        assertThat(writeBuffer.flush(), is(0));
+        verify(productRepository, VerificationModeFactory.times(1)).batchWrite(List.of(created));
+    }
+
+    @Test
+    public void givenBufferedProduct_whenCreateAllWithItsId_thenWriteNextVersion() {
+        Product created = productService.create(new Product(null, "Iphone13 Pro", "Mobile Phone", 1000d));
+        var replacement = new Product(created.getId(), "Iphone13 Pro", "Mobile Phone", 900d);
+
+        productService.createAll(List.of(replacement));
+
+        assertThat(replacement.getVersion(), is(2L));
+        verify(productRepository, VerificationModeFactory.times(1)).batchWrite(List.of(replacement));
+        assertThat(writeBuffer.flush(), is(0));
+        verify(productRepository, VerificationModeFactory.times(0)).batchWrite(List.of(created));
+    }
+
+    @Test
+    public void givenStoredProduct_whenUpdate_thenBufferNextVersion() {
+        var stored = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone", 1000d, 3L);
+        var update = new Product(stored.getId(), "Iphone13 Pro", "Mobile Phone", 900d);
+
+        given(productRepository.findById(stored.getId())).willReturn(Optional.of(stored));
+
+        Product updated = productService.update(update, Set.of());
+
+        assertThat(updated.getVersion(), is(4L));
+        verify(productRepository, VerificationModeFactory.times(0)).saveIfExists(any());
+
+        assertThat(writeBuffer.flush(), is(0));
+        verify(productRepository, VerificationModeFactory.times(1)).batchWrite(List.of(updated));
+    }
+
+    @Test
+    public void givenUnknownProduct_whenUpdate_thenThrowsProductNotFoundException() {
+        var update = new Product("a2e945d1-7b47-441e-9732-68b0bb76e411", "Iphone13 Pro", "Mobile Phone", 900d);
+
+        given(productRepository.findById(update.getId())).willReturn(Optional.empty());
+
+        try {
+            productService.update(update, Set.of());
+            fail("Should throw ProductNotFoundException");
+        } catch (ProductNotFoundException ex) {
+        }
+
+        assertThat(writeBuffer.flush(), is(0));
+        verify(productRepository, VerificationModeFactory.times(0)).batchWrite(anyList());
+    }
+
+    @Test
+    public void givenBufferedProduct_whenDelete_thenNeverWritten() {
+        Product created = productService.create(new Product(null, "Iphone13 Pro", "Mobile Phone", 1000d));
+
+        productService.delete(created.getId());
+
+        verify(productRepository, VerificationModeFactory.times(1)).deleteById(created.getId());
+        assertThat(writeBuffer.flush(), is(0));
+        verify(productRepository, VerificationModeFactory.times(0)).batchWrite(anyList());
+    }
+
+    @Test
+    public void givenFailingFlush_whenFlushed_thenRetryThenDropProduct() {
+        given(productRepository.batchWrite(anyList())).willThrow(new AmazonServiceException("Throttled"));
+        Product created = productService.create(new Product(null, "Iphone13 Pro", "Mobile Phone", 1000d));
+
+        assertThat(writeBuffer.flush(), is(1));
+        assertThat(writeBuffer.get(created.getId()), is(Optional.of(created)));
+
+        assertThat(writeBuffer.flush(), is(1));
+        assertThat(writeBuffer.get(created.getId()), is(Optional.empty()));
+        verify(productRepository, VerificationModeFactory.times(2)).batchWrite(List.of(created));
+    }
+}
@@ -0,0 +1,100 @@
+package com.mvs.dynamodb.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.mvs.dynamodb.model.Product;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.internal.verification.VerificationModeFactory;
+
+public class ProductWriteBufferTest {
+    private final ProductBatchOperations batchOperations = mock(ProductBatchOperations.class);
+    // flushes are triggered by the tests, the interval never elapses
+    private final ProductWriteBuffer buffer = new ProductWriteBuffer(batchOperations, true, 2, 100,
+            Duration.ofHours(1), Duration.ofMillis(10), 2);
+
+    @After
+    public void tearDown() throws InterruptedException {
+        given(batchOperations.saveAll(anyList())).willReturn(Map.of());
+        buffer.shutdown();
+    }
+
+    @Test
+    public void givenRepeatedWrites_whenFlushed_thenWriteLastVersionOnce() {
+        given(batchOperations.saveAll(anyList())).willReturn(Map.of());
+        buffer.put(product("1", "Cap"));
+        buffer.put(product("1", "Hat"));
+
+        assertThat(buffer.get("1").map(Product::getName), is(Optional.of("Hat")));
+        assertThat(buffer.flush(), is(0));
+        verify(batchOperations).saveAll(List.of(product("1", "Hat")));
+        assertThat(buffer.get("1"), is(Optional.empty()));
+    }
+
+    @Test
+    public void givenFailedWrite_whenFlushed_thenKeepProductForNextFlush() {
+        given(batchOperations.saveAll(anyList())).willReturn(Map.of("1", "Throttled"));
+        buffer.put(product("1", "Cap"));
+
+        assertThat(buffer.flush(), is(1));
+        assertThat(buffer.pendingCount(), is(1));
+    }
+
+    @Test
+    public void givenRepeatedlyFailingWrite_whenFlushedMaxAttempts_thenDropProduct() {
+        given(batchOperations.saveAll(anyList())).willReturn(Map.of("1", "Throttled"));
+        buffer.put(product("1", "Cap"));
+
+        assertThat(buffer.flush(), is(1));
+        assertThat(buffer.flush(), is(1));
+        assertThat(buffer.pendingCount(), is(0));
+        assertThat(buffer.get("1"), is(Optional.empty()));
+        verify(batchOperations, VerificationModeFactory.times(2)).saveAll(List.of(product("1", "Cap")));
+    }
+
+    @Test
+    public void givenNewWriteAfterFailedFlush_whenFlushed_thenStartAttemptsAgain() {
+        given(batchOperations.saveAll(anyList())).willReturn(Map.of("1", "Throttled"));
+        buffer.put(product("1", "Cap"));
+        buffer.flush();
+        buffer.put(product("1", "Hat"));
+
+        assertThat(buffer.flush(), is(1));
+        assertThat(buffer.get("1").map(Product::getName), is(Optional.of("Hat")));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void givenFullBuffer_whenPut_thenReject() {
+        buffer.put(product("1", "Cap"));
+        buffer.put(product("2", "Hat"));
+        buffer.put(product("3", "Scarf"));
+    }
+
+    @Test
+    public void givenBufferedProduct_whenDiscarded_thenNotWritten() {
+        buffer.put(product("1", "Cap"));
+        buffer.discard("1");
+
+        assertThat(buffer.flush(), is(0));
+        assertThat(buffer.get("1"), is(Optional.empty()));
+    }
+
+    private static Product product(String id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
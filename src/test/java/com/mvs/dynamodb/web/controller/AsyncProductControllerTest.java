@@ -0,0 +1,158 @@
+package com.mvs.dynamodb.web.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.config.SecurityTestContextConfiguration;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.service.ProductService;
+import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.internal.verification.VerificationModeFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(value = AsyncProductController.class)
+@Import({ SecurityTestContextConfiguration.class })
+@ContextConfiguration(classes = DynamoDBSpringDataDemoApplication.class)
+@TestPropertySource(properties = "product.async.enabled=true")
+@ActiveProfiles("test")
+public class AsyncProductControllerTest {
+        @Autowired
+        private MockMvc mvc;
+
+        @MockBean
+        private ProductService productService;
+
+        @Autowired
+        ObjectMapper objectMapper;
+
+        @Before
+        public void setUp() {
+                reset(productService);
+        }
+
+        @Test
+        public void givenValidId_whenById_thenReturnJsonAfterAsyncDispatch() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+
+                given(productService.getById(iphone13Pro.getId())).willReturn(iphone13Pro);
+
+                performAsync(get("/api/v1/products/{id}", iphone13Pro.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.id", is(iphone13Pro.getId())))
+                                .andExpect(jsonPath("$.name", is(iphone13Pro.getName())));
+
+                verify(productService, VerificationModeFactory.times(1)).getById(iphone13Pro.getId());
+        }
+
+        @Test
+        public void givenInvalidId_whenGetById_thenReturnHTTPNotFound() throws Exception {
+                var id = "a2e945d1-7b47-441e-9732-68b0bb76e411";
+
+                given(productService.getById(id)).willThrow(new ProductNotFoundException(id));
+
+                performAsync(get("/api/v1/products/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        public void givenProduct_whenCreate_thenReturnLocationOfRequest() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+
+                given(productService.create(iphone13Pro)).willReturn(iphone13Pro);
+
+                performAsync(post("/api/v1/products")
+                                .content(objectMapper.writeValueAsString(iphone13Pro))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().string("Location",
+                                                containsString("/api/v1/products/" + iphone13Pro.getId())));
+
+                verify(productService, VerificationModeFactory.times(1)).create(iphone13Pro);
+        }
+
+        // roles and validation are declared once by ProductApi and apply to this controller as well
+        @Test
+        public void givenUserRole_whenCreate_thenReturnHTTPForbidden() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+
+                mvc.perform(post("/api/v1/products")
+                                .content(objectMapper.writeValueAsString(iphone13Pro))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isForbidden());
+
+                verify(productService, VerificationModeFactory.times(0)).create(iphone13Pro);
+        }
+
+        @Test
+        public void givenInvalidProduct_whenCreate_thenReturnHTTPBadRequest() throws Exception {
+                var invalid = new Product(null, "Iphone13 Pro", "Mobile Phone", -1d);
+
+                mvc.perform(post("/api/v1/products")
+                                .content(objectMapper.writeValueAsString(invalid))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isBadRequest());
+
+                verify(productService, VerificationModeFactory.times(0)).create(invalid);
+        }
+
+        @Test
+        public void givenSaturatedPool_whenGetById_thenReturnHTTPServiceUnavailable() throws Exception {
+                var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+
+                given(productService.getById(id)).willThrow(new RejectedExecutionException("Pool is full"));
+
+                performAsync(get("/api/v1/products/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isServiceUnavailable());
+        }
+
+        // the endpoints complete on the I/O pool, so the response is only available after the async dispatch
+        private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+                MvcResult result = mvc.perform(requestBuilder)
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                return mvc.perform(asyncDispatch(result));
+        }
+}
@@ -1,6 +1,7 @@
 package com.mvs.dynamodb.web.controller;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
@@ -10,23 +11,39 @@ import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
 import com.mvs.dynamodb.config.SecurityTestContextConfiguration;
+import com.mvs.dynamodb.model.BatchCreateResult;
+import com.mvs.dynamodb.model.BatchItemResult;
+import com.mvs.dynamodb.model.CategoryQuery;
 import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.model.ProductBatchGetResult;
+import com.mvs.dynamodb.model.ProductPage;
 import com.mvs.dynamodb.service.ProductService;
+import com.mvs.dynamodb.web.exception.InvalidCursorException;
+import com.mvs.dynamodb.web.exception.InvalidPatchException;
 import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+import com.mvs.dynamodb.web.exception.ProductVersionMismatchException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -36,11 +53,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(value = ProductController.class)
@@ -124,6 +143,86 @@ public class ProductControllerTest {
                 verify(productService, VerificationModeFactory.times(1)).getAll();
         }
 
+        @Test
+        public void givenLimit_whenGetAll_thenReturnPageWithCursor() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+                var page = new ProductPage(List.of(iphone13Pro), "next-cursor");
+
+                given(productService.getPage(1, "cursor")).willReturn(page);
+
+                mvc.perform(get("/api/v1/products")
+                                .param("limit", "1")
+                                .param("cursor", "cursor")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items", hasSize(1)))
+                                .andExpect(jsonPath("$.items[0].id", is(iphone13Pro.getId())))
+                                .andExpect(jsonPath("$.nextCursor", is("next-cursor")));
+
+                verify(productService, VerificationModeFactory.times(1)).getPage(1, "cursor");
+                verify(productService, VerificationModeFactory.times(0)).getAll();
+        }
+
+        @Test
+        public void givenMalformedCursor_whenGetAll_thenReturnBadRequestWithoutCursor() throws Exception {
+                given(productService.getPage(1, "<script>")).willThrow(
+                                new InvalidCursorException("Invalid cursor: <script>", null));
+
+                mvc.perform(get("/api/v1/products")
+                                .param("limit", "1")
+                                .param("cursor", "<script>")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", is("Invalid cursor")));
+        }
+
+        @Test
+        public void givenCategoryAndMinPrice_whenGetByCategory_thenReturnPage() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+                var page = new ProductPage(List.of(iphone13Pro), null);
+
+                var query = new CategoryQuery("Mobile Phone", 500d, null, false);
+
+                given(productService.getPageByCategory(query, 100, null)).willReturn(page);
+
+                mvc.perform(get("/api/v1/products/category/{category}", "Mobile Phone")
+                                .param("minPrice", "500")
+                                .param("order", "DESC")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items", hasSize(1)))
+                                .andExpect(jsonPath("$.items[0].category", is("Mobile Phone")));
+
+                verify(productService, VerificationModeFactory.times(1)).getPageByCategory(query, 100, null);
+        }
+
+        @Test
+        public void givenProducts_whenExport_thenStreamNewlineDelimitedJson() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+                var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+
+                given(productService.streamAll()).willReturn(Stream.of(iphone13Pro, macBookPro));
+
+                MvcResult result = mvc.perform(get("/api/v1/products/export")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                                .andExpect(content().string(objectMapper.writeValueAsString(iphone13Pro) + "\n"
+                                                + objectMapper.writeValueAsString(macBookPro) + "\n"));
+
+                verify(productService, VerificationModeFactory.times(1)).streamAll();
+        }
+
         @Test
         public void givenValidId_whenById_thenReturnJson() throws Exception {
                 var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
@@ -134,6 +233,7 @@ public class ProductControllerTest {
                 mvc.perform(get("/api/v1/products/{id}", "f03f8643-d547-435c-a980-d9c013c86de4")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(request().asyncNotStarted())
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.id", is(iphone13Pro.getId())))
                                 .andExpect(jsonPath("$.name", is(iphone13Pro.getName())))
@@ -143,6 +243,28 @@ public class ProductControllerTest {
                 verify(productService, VerificationModeFactory.times(1)).getById(iphone13Pro.getId());
         }
 
+        @Test
+        public void givenIds_whenGetByIds_thenReturnFoundAndMissing() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+                var missingId = "a2e945d1-7b47-441e-9732-68b0bb76e411";
+                List<String> ids = List.of(iphone13Pro.getId(), missingId);
+
+                given(productService.getByIds(ids))
+                                .willReturn(new ProductBatchGetResult(List.of(iphone13Pro), List.of(missingId)));
+
+                mvc.perform(get("/api/v1/products/batch")
+                                .param("ids", iphone13Pro.getId() + "," + missingId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.found", hasSize(1)))
+                                .andExpect(jsonPath("$.found[0].id", is(iphone13Pro.getId())))
+                                .andExpect(jsonPath("$.missing[0]", is(missingId)));
+
+                verify(productService, VerificationModeFactory.times(1)).getByIds(ids);
+        }
+
         @Test
         public void givenInvalidId_whenGetById_thenReturnHTTPNotFound() throws Exception {
                 var id = "a2e945d1-7b47-441e-9732-68b0bb76e411";
@@ -157,6 +279,131 @@ public class ProductControllerTest {
                 verify(productService, VerificationModeFactory.times(1)).getById(id);
         }
 
+        @Test
+        public void givenCurrentETag_whenGetById_thenReturnHTTPNotModified() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d, 3L);
+
+                given(productService.getById(iphone13Pro.getId())).willReturn(iphone13Pro);
+
+                mvc.perform(get("/api/v1/products/{id}", iphone13Pro.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                                .andExpect(content().string(""));
+        }
+
+        @Test
+        public void givenStaleIfMatch_whenUpdate_thenReturnHTTPPreconditionFailed() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d, 2L);
+
+                given(productService.update(iphone13Pro, Set.of(2L)))
+                                .willThrow(new ProductVersionMismatchException("Product is not at version 2"));
+
+                mvc.perform(put("/api/v1/products/{id}", iphone13Pro.getId())
+                                .content(objectMapper.writeValueAsString(iphone13Pro))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isPreconditionFailed())
+                                .andExpect(jsonPath("$.message", is("Product does not match If-Match")));
+
+                verify(productService, VerificationModeFactory.times(1)).update(iphone13Pro, Set.of(2L));
+        }
+
+        @Test
+        public void givenIfMatchWithoutVersion_whenUpdate_thenReturnFixedPreconditionFailed() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+
+                mvc.perform(put("/api/v1/products/{id}", iphone13Pro.getId())
+                                .content(objectMapper.writeValueAsString(iphone13Pro))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_MATCH, "\"<script>\"")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isPreconditionFailed())
+                                .andExpect(jsonPath("$.message", is("Product does not match If-Match")))
+                                .andExpect(content().string(not(containsString("<script>"))));
+
+                verify(productService, VerificationModeFactory.times(0)).update(any(), any());
+        }
+
+        @Test
+        public void givenMergePatch_whenPatch_thenReturnPatchedProductWithNewETag() throws Exception {
+                var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+                var patched = new Product(id, "Iphone13 Pro", "Mobile Phone", 900.5, 4L);
+
+                given(productService.patch(id, Map.<String, Object>of("price", 900.5), Set.of(3L))).willReturn(patched);
+
+                mvc.perform(patch("/api/v1/products/{id}", id)
+                                .content("{\"price\": 900.5}")
+                                .contentType("application/merge-patch+json")
+                                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                                .andExpect(jsonPath("$.name", is("Iphone13 Pro")))
+                                .andExpect(jsonPath("$.price", is(900.5)));
+
+                verify(productService, VerificationModeFactory.times(1))
+                                .patch(id, Map.<String, Object>of("price", 900.5), Set.of(3L));
+        }
+
+        @Test
+        public void givenIfMatchList_whenPatch_thenPassEveryListedVersion() throws Exception {
+                var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+                var patched = new Product(id, "Iphone13 Pro", "Mobile Phone", 900.5, 5L);
+
+                given(productService.patch(id, Map.<String, Object>of("price", 900.5), Set.of(3L, 4L)))
+                                .willReturn(patched);
+
+                mvc.perform(patch("/api/v1/products/{id}", id)
+                                .content("{\"price\": 900.5}")
+                                .contentType("application/merge-patch+json")
+                                .header(HttpHeaders.IF_MATCH, "\"3\", W/\"7\", \"4\"")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+
+                verify(productService, VerificationModeFactory.times(1))
+                                .patch(id, Map.<String, Object>of("price", 900.5), Set.of(3L, 4L));
+        }
+
+        @Test
+        public void givenInvalidPatch_whenPatch_thenReturnBadRequestWithViolations() throws Exception {
+                var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+
+                given(productService.patch(id, Map.<String, Object>of("price", -1), Set.of())).willThrow(
+                                new InvalidPatchException("Price cannot be negative"));
+
+                mvc.perform(patch("/api/v1/products/{id}", id)
+                                .content("{\"price\": -1}")
+                                .contentType("application/merge-patch+json")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", is("Price cannot be negative")));
+        }
+
+        @Test
+        public void givenInvalidProduct_whenCreate_thenReturnConstraintMessagesWithoutRejectedValues()
+                        throws Exception {
+                var product = new Product(null, "<script>", null, -1d);
+
+                mvc.perform(post("/api/v1/products")
+                                .content(objectMapper.writeValueAsString(product))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", is("Validation Failed")))
+                                .andExpect(jsonPath("$.details",
+                                                is("Category cannot be null, Price cannot be negative")))
+                                .andExpect(content().string(not(containsString("<script>"))));
+
+                verify(productService, VerificationModeFactory.times(0)).create(any());
+        }
+
         @Test
         public void givenProduct_whenCreate_thenReturnJson() throws Exception {
                 var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
@@ -175,12 +422,36 @@ public class ProductControllerTest {
                 verify(productService, VerificationModeFactory.times(1)).create(iphone13Pro);
         }
 
+        @Test
+        public void givenProducts_whenCreateAll_thenReturnPerItemResults() throws Exception {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+                var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+                List<Product> products = Arrays.asList(iphone13Pro, macBookPro);
+                var result = BatchCreateResult.of(List.of(
+                                new BatchItemResult(0, iphone13Pro.getId(), BatchItemResult.Status.CREATED, null),
+                                new BatchItemResult(1, macBookPro.getId(), BatchItemResult.Status.FAILED, "Throttled")));
+
+                given(productService.createAll(products)).willReturn(result);
+
+                mvc.perform(post("/api/v1/products/batch")
+                                .content(objectMapper.writeValueAsString(products))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
+                                .andExpect(status().isMultiStatus())
+                                .andExpect(jsonPath("$.created", is(1)))
+                                .andExpect(jsonPath("$.failed", is(1)))
+                                .andExpect(jsonPath("$.items[1].status", is("FAILED")));
+
+                verify(productService, VerificationModeFactory.times(1)).createAll(products);
+        }
+
         @Test
         public void givenValidProduct_whenUpdate_thenReturnJson() throws Exception {
                 var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
                                 1000d);
 
-                given(productService.update(iphone13Pro)).willReturn(iphone13Pro);
+                given(productService.update(iphone13Pro, Set.of())).willReturn(iphone13Pro);
 
                 mvc.perform(put("/api/v1/products/{id}", "f03f8643-d547-435c-a980-d9c013c86de4")
                                 .content(objectMapper.writeValueAsString(iphone13Pro))
@@ -192,7 +463,7 @@ public class ProductControllerTest {
                                 .andExpect(jsonPath("$.category", is(iphone13Pro.getCategory())))
                                 .andExpect(jsonPath("$.price", is(iphone13Pro.getPrice())));
 
-                verify(productService, VerificationModeFactory.times(1)).update(iphone13Pro);
+                verify(productService, VerificationModeFactory.times(1)).update(iphone13Pro, Set.of());
         }
 
         @Test
@@ -200,7 +471,7 @@ public class ProductControllerTest {
                 var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
                                 1000d);
 
-                given(productService.update(iphone13Pro))
+                given(productService.update(iphone13Pro, Set.of()))
                                 .willThrow(new ProductNotFoundException("f03f8643-d547-435c-a980-d9c013c86de4"));
 
                 mvc.perform(put("/api/v1/products/{id}", "f03f8643-d547-435c-a980-d9c013c86de4")
@@ -209,7 +480,7 @@ public class ProductControllerTest {
                                 .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN))
                                 .andExpect(status().isNotFound());
 
-                verify(productService, VerificationModeFactory.times(1)).update(iphone13Pro);
+                verify(productService, VerificationModeFactory.times(1)).update(iphone13Pro, Set.of());
         }
 
         @Test
@@ -239,4 +510,18 @@ public class ProductControllerTest {
 
                 verify(productService, VerificationModeFactory.times(1)).delete(id);
         }
-}
\ No newline at end of file
+
+        @Test
+        public void givenSaturatedPool_whenGetById_thenReturnHTTPServiceUnavailable() throws Exception {
+                var id = "f03f8643-d547-435c-a980-d9c013c86de4";
+
+                given(productService.getById(id)).willThrow(new RejectedExecutionException("Pool is full"));
+
+                mvc.perform(get("/api/v1/products/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN))
+                                .andExpect(status().isServiceUnavailable());
+
+                verify(productService, VerificationModeFactory.times(1)).getById(id);
+        }
+}
@@ -0,0 +1,165 @@
+package com.mvs.dynamodb.web.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.config.SecurityTestContextConfiguration;
+import com.mvs.dynamodb.model.Product;
+import com.mvs.dynamodb.service.ProductService;
+import com.mvs.dynamodb.web.exception.ProductNotFoundException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.internal.verification.VerificationModeFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = DynamoDBSpringDataDemoApplication.class,
+        properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+        "amazon.dynamodb.endpoint=http://localhost:8000/",
+        "amazon.aws.accesskey=test1",
+        "amazon.aws.secretkey=test231" })
+@ActiveProfiles("test")
+public class ReactiveProductControllerTest {
+        @Autowired
+        private WebTestClient webClient;
+
+        @MockBean
+        private ProductService productService;
+
+        @Before
+        public void setUp() {
+                reset(productService);
+        }
+
+        @Test
+        public void whenCallEndpointsWithoutToken_thenReturnHTTPUnauthorized() {
+                webClient.get().uri("/api/v1/products")
+                                .exchange()
+                                .expectStatus().isUnauthorized();
+
+                webClient.delete().uri("/api/v1/products/{id}", "f03f8643-d547-435c-a980-d9c013c86de4")
+                                .exchange()
+                                .expectStatus().isUnauthorized();
+        }
+
+        @Test
+        public void whenCreateWithInsufficientRole_thenReturnHTTPForbidden() {
+                var iphone13Pro = new Product(null, "Iphone13 Pro", "Mobile Phone", 1000d);
+
+                webClient.post().uri("/api/v1/products")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN)
+                                .bodyValue(iphone13Pro)
+                                .exchange()
+                                .expectStatus().isForbidden();
+
+                verify(productService, VerificationModeFactory.times(0)).create(iphone13Pro);
+        }
+
+        @Test
+        public void givenProducts_whenGetAll_thenReturnSameListingAsServletApi() {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d, 1L);
+                var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d,
+                                1L);
+
+                given(productService.getAll()).willReturn(List.of(iphone13Pro, macBookPro));
+
+                webClient.get().uri("/api/v1/products")
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN)
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectHeader().exists(HttpHeaders.ETAG)
+                                .expectBodyList(Product.class).isEqualTo(List.of(iphone13Pro, macBookPro));
+
+                verify(productService, VerificationModeFactory.times(1)).getAll();
+                verify(productService, VerificationModeFactory.times(0)).streamAll();
+        }
+
+        @Test
+        public void givenProducts_whenExport_thenStreamEveryProduct() {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+                var macBookPro = new Product("14668529-0e4c-4368-abd8-f88a8c22c891", "MacBook Pro", "Laptop", 8000d);
+
+                given(productService.streamAll()).willReturn(Stream.of(iphone13Pro, macBookPro));
+
+                webClient.get().uri("/api/v1/products/export")
+                                .accept(MediaType.APPLICATION_NDJSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN)
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBodyList(Product.class).isEqualTo(List.of(iphone13Pro, macBookPro));
+
+                verify(productService, VerificationModeFactory.times(1)).streamAll();
+                verify(productService, VerificationModeFactory.times(0)).getAll();
+        }
+
+        @Test
+        public void givenValidId_whenById_thenReturnJson() {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+
+                given(productService.getById(iphone13Pro.getId())).willReturn(iphone13Pro);
+
+                webClient.get().uri("/api/v1/products/{id}", iphone13Pro.getId())
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN)
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(Product.class).isEqualTo(iphone13Pro);
+
+                verify(productService, VerificationModeFactory.times(1)).getById(iphone13Pro.getId());
+        }
+
+        @Test
+        public void givenInvalidId_whenGetById_thenReturnHTTPNotFound() {
+                var id = "a2e945d1-7b47-441e-9732-68b0bb76e411";
+
+                given(productService.getById(id)).willThrow(new ProductNotFoundException(id));
+
+                webClient.get().uri("/api/v1/products/{id}", id)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_USER_TOKEN)
+                                .exchange()
+                                .expectStatus().isNotFound();
+
+                verify(productService, VerificationModeFactory.times(1)).getById(id);
+        }
+
+        @Test
+        public void givenProduct_whenCreate_thenReturnLocation() {
+                var iphone13Pro = new Product("f03f8643-d547-435c-a980-d9c013c86de4", "Iphone13 Pro", "Mobile Phone",
+                                1000d);
+
+                given(productService.create(iphone13Pro)).willReturn(iphone13Pro);
+
+                webClient.post().uri("/api/v1/products")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + SecurityTestContextConfiguration.TEST_ADMIN_TOKEN)
+                                .bodyValue(iphone13Pro)
+                                .exchange()
+                                .expectStatus().isCreated()
+                                .expectHeader().value("Location",
+                                                containsString("/api/v1/products/" + iphone13Pro.getId()));
+
+                verify(productService, VerificationModeFactory.times(1)).create(iphone13Pro);
+        }
+}
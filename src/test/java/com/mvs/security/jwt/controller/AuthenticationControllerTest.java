@@ -0,0 +1,147 @@
+package com.mvs.security.jwt.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.emptyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mvs.dynamodb.DynamoDBSpringDataDemoApplication;
+import com.mvs.dynamodb.config.SecurityTestContextConfiguration;
+import com.mvs.security.jwt.model.RefreshRequest;
+import com.mvs.security.jwt.model.Request;
+import com.mvs.security.jwt.model.Response;
+import com.mvs.security.jwt.service.PasswordVerificationExecutor;
+import com.mvs.security.jwt.util.TokenUtil;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(value = AuthenticationController.class)
+@Import({ SecurityTestContextConfiguration.class })
+@ContextConfiguration(classes = DynamoDBSpringDataDemoApplication.class)
+@ActiveProfiles("test")
+public class AuthenticationControllerTest {
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private TokenUtil tokenUtil;
+
+        @MockBean
+        private PasswordVerificationExecutor passwordVerificationExecutor;
+
+        @Autowired
+        ObjectMapper objectMapper;
+
+        private final User admin = new User("test_admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        @Before
+        public void setUp() {
+                reset(passwordVerificationExecutor);
+        }
+
+        @Test
+        public void givenRefreshToken_whenRefresh_thenReturnNewTokens() throws Exception {
+                Response tokens = tokenUtil.generateToken(admin);
+
+                mvc.perform(refresh(tokens.refreshToken()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.token", not(emptyString())))
+                                .andExpect(jsonPath("$.refreshToken", not(is(tokens.refreshToken()))));
+        }
+
+        @Test
+        public void givenUsedRefreshToken_whenRefresh_thenReturnHTTPUnauthorized() throws Exception {
+                Response tokens = tokenUtil.generateToken(admin);
+
+                mvc.perform(refresh(tokens.refreshToken()))
+                                .andExpect(status().isOk());
+
+                mvc.perform(refresh(tokens.refreshToken()))
+                                .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        public void givenAccessToken_whenRefresh_thenReturnHTTPUnauthorized() throws Exception {
+                Response tokens = tokenUtil.generateToken(admin);
+
+                mvc.perform(refresh(tokens.token()))
+                                .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        public void givenExpiredRefreshToken_whenRefresh_thenReturnHTTPUnauthorized() throws Exception {
+                byte[] secret = SecurityTestContextConfiguration.TEST_SECRET.getBytes();
+                String expired = Jwts.builder()
+                                .setClaims(Map.of(TokenUtil.TYPE_CLAIM, TokenUtil.REFRESH_TYPE,
+                                                TokenUtil.VERSION_CLAIM, 1,
+                                                Claims.ID, UUID.randomUUID().toString()))
+                                .setSubject(admin.getUsername())
+                                .setIssuedAt(Date.from(Instant.now().minusSeconds(120)))
+                                .setExpiration(Date.from(Instant.now().minusSeconds(60)))
+                                .signWith(new SecretKeySpec(secret, 0, secret.length, "HmacSHA512"),
+                                                SignatureAlgorithm.HS512)
+                                .compact();
+
+                mvc.perform(refresh(expired))
+                                .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        public void givenFullVerificationPool_whenAuthenticate_thenReturnHTTPServiceUnavailable() throws Exception {
+                given(passwordVerificationExecutor.supply(any())).willReturn(
+                                CompletableFuture.failedFuture(new RejectedExecutionException("Pool is full")));
+
+                MvcResult result = mvc.perform(post("/authenticate")
+                                .content(objectMapper.writeValueAsString(new Request("test_admin", "pwd")))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mvc.perform(asyncDispatch(result))
+                                .andExpect(status().isServiceUnavailable());
+        }
+
+        private RequestBuilder refresh(String refreshToken) throws Exception {
+                return post("/authenticate/refresh")
+                                .content(objectMapper.writeValueAsString(new RefreshRequest(refreshToken)))
+                                .contentType(MediaType.APPLICATION_JSON);
+        }
+}
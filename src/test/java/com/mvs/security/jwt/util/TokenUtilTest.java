@@ -0,0 +1,85 @@
+package com.mvs.security.jwt.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.mvs.security.jwt.model.Response;
+import com.mvs.security.jwt.model.VerifiedToken;
+
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+public class TokenUtilTest {
+    private static final String SECRET = "test_secret_test_secret_test_secret_test_secret_test_secret_0123";
+
+    private final TokenUtil tokenUtil = new TokenUtil(SECRET, 100, 100, 1);
+
+    @Test
+    public void givenGeneratedToken_whenVerify_thenReturnUsernameAndRoles() {
+        var user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String token = tokenUtil.generateToken(user).token();
+
+        Optional<VerifiedToken> first = tokenUtil.verify(token);
+        Optional<VerifiedToken> second = tokenUtil.verify(token);
+
+        assertThat(first.map(VerifiedToken::username), is(Optional.of("admin")));
+        assertThat(first.map(VerifiedToken::authorities),
+                is(Optional.of(List.<GrantedAuthority>of(new SimpleGrantedAuthority("ROLE_ADMIN")))));
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void givenTokenSignedWithOtherSecret_whenVerify_thenReturnEmpty() {
+        var user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String token = new TokenUtil(SECRET.replace('0', '9'), 100, 100, 1).generateToken(user).token();
+
+        assertThat(tokenUtil.verify(token), is(Optional.empty()));
+    }
+
+    @Test
+    public void givenTokenOfOtherVersion_whenVerify_thenReturnEmpty() {
+        var user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String token = new TokenUtil(SECRET, 100, 100, 2).generateToken(user).token();
+
+        assertThat(tokenUtil.verify(token), is(Optional.empty()));
+    }
+
+    @Test
+    public void givenRefreshToken_whenRedeemRefreshToken_thenReturnUsername() {
+        var user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        Response response = tokenUtil.generateToken(user);
+
+        assertThat(tokenUtil.redeemRefreshToken(response.refreshToken()), is(Optional.of("admin")));
+        assertThat(tokenUtil.redeemRefreshToken(response.token()), is(Optional.empty()));
+    }
+
+    @Test
+    public void givenUsedRefreshToken_whenRedeemRefreshToken_thenReturnEmpty() {
+        var user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        Response first = tokenUtil.generateToken(user);
+        Response second = tokenUtil.generateToken(user);
+
+        assertThat(tokenUtil.redeemRefreshToken(first.refreshToken()), is(Optional.of("admin")));
+        assertThat(tokenUtil.redeemRefreshToken(first.refreshToken()), is(Optional.empty()));
+        assertThat(tokenUtil.redeemRefreshToken(second.refreshToken()), is(Optional.of("admin")));
+    }
+
+    @Test
+    public void givenRefreshToken_whenVerify_thenReturnEmpty() {
+        var user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String refreshToken = tokenUtil.generateToken(user).refreshToken();
+
+        assertThat(tokenUtil.verify(refreshToken), is(Optional.empty()));
+    }
+
+    @Test
+    public void givenMalformedToken_whenVerify_thenReturnEmpty() {
+        assertThat(tokenUtil.verify("not-a-token"), is(Optional.empty()));
+        assertThat(tokenUtil.verify(""), is(Optional.empty()));
+    }
+}